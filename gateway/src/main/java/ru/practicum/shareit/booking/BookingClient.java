@@ -2,61 +2,75 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatusRequestDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    // item responses carry the last and next booking
+    private static final String ITEMS = "/items/";
+
+    private final ResponseCache responseCache;
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transports,
+                         ResponseCache responseCache) {
+        super(transports.create(serverUrl + API_PREFIX));
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, String cursor,
+                                                    Integer from, Integer size) {
+        return get(pagedPath("", state, cursor), userId, pagedParameters(state, cursor, from, size));
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
+        return responseCache.invalidating(post("", userId, requestDto), ITEMS);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, long bookingId, @Nullable String ifNoneMatch) {
+        return conditionalGet("/" + bookingId, userId, ifNoneMatch);
+    }
+
+    public Mono<ResponseEntity<Object>> changeStatus(long userId, long bookingId, Boolean approved) {
+        return responseCache.invalidating(patch("/" + bookingId + "?approved=" + approved, userId), ITEMS);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, long bookingId) {
-        return get("/" + bookingId, userId);
+    public Mono<ResponseEntity<Object>> changeStatuses(long userId, BookingStatusRequestDto requestDto) {
+        return responseCache.invalidating(patch("", userId, requestDto), ITEMS);
     }
 
-    public ResponseEntity<Object> changeStatus(long userId, long bookingId, Boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userId);
+    public Mono<ResponseEntity<Object>> getBookingsOwner(long userId, BookingState state, String cursor,
+                                                         Integer from, Integer size) {
+        return get(pagedPath("/owner", state, cursor), userId, pagedParameters(state, cursor, from, size));
     }
 
-    public ResponseEntity<Object> getBookingsOwner(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name()
-        );
-        return get("/owner?state={state}", userId, parameters);
+    private static String pagedPath(String path, BookingState state, String cursor) {
+        String query = path + "?state={state}&from={from}&size={size}";
+        return cursor == null ? query : query + "&cursor={cursor}";
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    private static Map<String, Object> pagedParameters(BookingState state, String cursor, Integer from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 }
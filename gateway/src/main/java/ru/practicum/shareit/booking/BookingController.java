@@ -5,7 +5,10 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,8 +19,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatusRequestDto;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -26,48 +33,75 @@ import ru.practicum.shareit.booking.dto.BookingState;
 @Validated
 public class BookingController {
     private final BookingClient bookingClient;
+    private final BookingEventStream bookingEventStream;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+            @RequestParam(required = false) String cursor,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, cursor={}, from={}, size={}",
+                stateParam, userId, cursor, from, size);
+        return bookingClient.getBookings(userId, state, cursor, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    /**
+     * Pushes the creation and status changes of the caller's bookings while the connection is open, instead of
+     * polling them. Events missed while disconnected are not replayed, the bookings are read again after a reconnect.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BookingEventDto>> streamEvents(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Stream booking events, userId={}", userId);
+        return bookingEventStream.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @Positive @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @Positive @PathVariable Long bookingId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                   String ifNoneMatch) {
         log.info("Get booking {}, userId={}", bookingId, userId);
-        return bookingClient.getBooking(userId, bookingId);
+        return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> changeStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @Positive @PathVariable Long bookingId,
-                                               @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Object>> changeStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @Positive @PathVariable Long bookingId,
+                                                     @RequestParam Boolean approved) {
         log.info("PATCH bookings/id?approved: changeStatus by id - {},approved - {}, by user - {}",
                 bookingId, approved, userId);
         return bookingClient.changeStatus(userId, bookingId, approved);
     }
 
+    @PatchMapping
+    public Mono<ResponseEntity<Object>> changeStatuses(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                       @RequestBody @Valid BookingStatusRequestDto requestDto) {
+        log.info("PATCH bookings: changeStatuses of {} bookings, approved - {}, by user - {}",
+                requestDto.getBookingIds().size(), requestDto.getApproved(), userId);
+        return bookingClient.changeStatuses(userId, requestDto);
+    }
+
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsAllItemsByUserId(
+    public Mono<ResponseEntity<Object>> getBookingsAllItemsByUserId(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @RequestParam(defaultValue = "ALL") String stateParam) {
+            @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+            @RequestParam(required = false) String cursor,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("GET bookings/owner/id?state: getBookingsAllItemsByUserId state - {}, by userId - {}", stateParam, userId);
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        return bookingClient.getBookingsOwner(userId, state);
+        return bookingClient.getBookingsOwner(userId, state, cursor, from, size);
     }
 }
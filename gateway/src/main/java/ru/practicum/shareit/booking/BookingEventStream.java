@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans the server's booking events out to the bookers listening on this gateway. All subscribers share one upstream
+ * connection, opened with the first subscriber and closed with the last; an idle subscriber costs a map entry and no
+ * thread. Each event goes to the subscribers of its booker only, and a subscriber that does not keep up misses events
+ * rather than holding back the others.
+ */
+@Slf4j
+@Component
+public class BookingEventStream {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<BookingEventDto>> EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final Duration reconnectDelay;
+    private final Flux<ServerSentEvent<BookingEventDto>> heartbeats;
+    private final Map<Long, Subscribers> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // the server's stream position, sent as Last-Event-ID on reconnect
+    private final AtomicLong lastEventId = new AtomicLong();
+    private Disposable upstream;
+
+    public BookingEventStream(WebClient.Builder builder, MeterRegistry registry,
+                              @Value("${shareit-server.url}") String serverUrl,
+                              @Value("${shareit-gateway.booking-stream.reconnect-delay:1s}") Duration reconnectDelay,
+                              @Value("${shareit-gateway.booking-stream.heartbeat:15s}") Duration heartbeat,
+                              @Value("${shareit-gateway.booking-stream.read-timeout:60s}") Duration readTimeout) {
+        // a connector of its own rather than the one the builder may carry from the reactive transport: that pool's
+        // read timeout would cut the stream between the server's heartbeats
+        this.webClient = builder.clone()
+                .baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(ConnectionProvider.newConnection())
+                        .responseTimeout(readTimeout)))
+                .build();
+        this.reconnectDelay = reconnectDelay;
+        this.heartbeats = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<BookingEventDto>builder().comment("heartbeat").build())
+                .share();
+        Gauge.builder("shareit.gateway.booking.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Clients listening for booking events")
+                .register(registry);
+    }
+
+    public Flux<ServerSentEvent<BookingEventDto>> subscribe(long userId) {
+        return Flux.defer(() -> subscribe(userId, register(userId)));
+    }
+
+    private Flux<ServerSentEvent<BookingEventDto>> subscribe(long userId, Subscribers user) {
+        return user.events.asFlux()
+                .mergeWith(heartbeats)
+                .doFinally(signal -> unregister(userId));
+    }
+
+    private synchronized Subscribers register(long userId) {
+        Subscribers user = subscribers.computeIfAbsent(userId, id -> new Subscribers());
+        user.count++;
+        subscriberCount.incrementAndGet();
+        if (upstream == null) {
+            upstream = connect();
+        }
+        return user;
+    }
+
+    private synchronized void unregister(long userId) {
+        Subscribers user = subscribers.get(userId);
+        if (user != null && --user.count == 0) {
+            subscribers.remove(userId);
+        }
+        subscriberCount.decrementAndGet();
+        if (subscribers.isEmpty() && upstream != null) {
+            upstream.dispose();
+            upstream = null;
+            // nobody is waiting for what happened in between
+            lastEventId.set(0);
+        }
+    }
+
+    private Disposable connect() {
+        log.info("Connecting to the booking event stream");
+        return Flux.defer(() -> webClient.get()
+                        .uri("/bookings/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .headers(headers -> {
+                            long last = lastEventId.get();
+                            if (last > 0) {
+                                headers.set("Last-Event-ID", String.valueOf(last));
+                            }
+                        })
+                        .retrieve()
+                        .bodyToFlux(EVENT))
+                // the server ends a stream after a while, and may go down
+                .repeatWhen(completed -> completed.delayElements(reconnectDelay))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, reconnectDelay)
+                        .maxBackoff(reconnectDelay.multipliedBy(30))
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> log.warn("Booking event stream lost, reconnecting: {}",
+                                signal.failure().getMessage())))
+                .subscribe(this::dispatch);
+    }
+
+    private void dispatch(ServerSentEvent<BookingEventDto> event) {
+        if (event.id() == null || event.data() == null) {
+            return;
+        }
+        lastEventId.set(Long.parseLong(event.id()));
+        Subscribers user = subscribers.get(event.data().getBookerId());
+        if (user != null) {
+            user.events.tryEmitNext(event);
+        }
+    }
+
+    private static final class Subscribers {
+        private final Sinks.Many<ServerSentEvent<BookingEventDto>> events = Sinks.many().multicast()
+                .directBestEffort();
+        // guarded by the stream
+        private int count;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Sizing and timeouts of the connection pool shared by all gateway clients talking to shareit-server.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+
+    private int maxConnections = 200;
+
+    private int maxConnectionsPerRoute = 100;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long a request may wait for a free pooled connection.
+     */
+    private Duration leaseTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Keep-alive applied when the server response carries no Keep-Alive header.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private Duration idleEviction = Duration.ofSeconds(30);
+
+    /**
+     * Connections idle for longer than this are validated before being leased again.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Largest server response the reactive transport reads into memory; owners' item lists are not paged.
+     */
+    private DataSize maxResponseSize = DataSize.ofMegabytes(16);
+}
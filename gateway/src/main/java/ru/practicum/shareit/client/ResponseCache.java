@@ -0,0 +1,140 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of successful GET responses, keyed by path with query and the requesting user.
+ * Writes proxied by this gateway invalidate the resources they touch.
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+
+    private static final String METRIC = "shareit.gateway.cache.";
+
+    private final boolean enabled;
+    private final Cache<Key, ResponseEntity<Object>> cache;
+    // bumped on every invalidation, a load that overlapped one is not stored since it may predate the write
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter invalidations;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry registry) {
+        this.enabled = properties.isEnabled();
+        this.evictions = registry.counter(METRIC + "evictions");
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .<Key, ResponseEntity<Object>>evictionListener((key, value, cause) -> evictions.increment())
+                .build();
+        this.hits = registry.counter(METRIC + "hits");
+        this.misses = registry.counter(METRIC + "misses");
+        this.invalidations = registry.counter(METRIC + "invalidations");
+        Gauge.builder(METRIC + "size", cache, Cache::estimatedSize).register(registry);
+    }
+
+    public Mono<ResponseEntity<Object>> get(String path, @Nullable Long userId,
+                                            Supplier<Mono<ResponseEntity<Object>>> loader) {
+        return get(path, userId, null, loader);
+    }
+
+    /**
+     * Conditional read: a cached response whose ETag matches {@code ifNoneMatch} is answered with a bodiless
+     * {@code 304}. On a miss the loader is expected to forward the validator, the server's 304 is not cached.
+     */
+    public Mono<ResponseEntity<Object>> get(String path, @Nullable Long userId, @Nullable String ifNoneMatch,
+                                            Supplier<Mono<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return Mono.defer(() -> {
+            Key key = new Key(path, userId);
+            ResponseEntity<Object> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                hits.increment();
+                return Mono.just(notModified(cached, ifNoneMatch) ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(cached.getHeaders().getETag())
+                        .build() : cached);
+            }
+            misses.increment();
+            long loadGeneration = generation.get();
+            return loader.get().doOnNext(response -> {
+                if (response.getStatusCode().is2xxSuccessful() && generation.get() == loadGeneration) {
+                    cache.put(key, response);
+                    // an invalidation that began after the check may have scanned the keys before the put, the entry
+                    // is taken back out; one beginning after this second check finds it
+                    if (generation.get() != loadGeneration) {
+                        cache.asMap().remove(key, response);
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * Invalidates the given resources once the write completes, whatever its outcome. A resource ending with
+     * {@code /} stands for every resource under it.
+     */
+    public Mono<ResponseEntity<Object>> invalidating(Mono<ResponseEntity<Object>> write, String... resources) {
+        return write.doFinally(signal -> invalidate(key -> {
+            for (String resource : resources) {
+                if (resource.endsWith("/") ? key.resource().startsWith(resource) : key.resource().equals(resource)) {
+                    return true;
+                }
+            }
+            return false;
+        }));
+    }
+
+    public Mono<ResponseEntity<Object>> invalidatingAll(Mono<ResponseEntity<Object>> write) {
+        return write.doFinally(signal -> invalidate(key -> true));
+    }
+
+    private void invalidate(Predicate<Key> matching) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        // a scan over at most max-entries keys, writes are rare next to the reads served from here
+        cache.asMap().keySet().removeIf(matching);
+    }
+
+    private static boolean notModified(ResponseEntity<Object> cached, @Nullable String ifNoneMatch) {
+        String etag = cached.getHeaders().getETag();
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        HttpHeaders request = new HttpHeaders();
+        request.setIfNoneMatch(ifNoneMatch);
+        // If-None-Match uses the weak comparison
+        return request.getIfNoneMatch().stream()
+                .anyMatch(candidate -> "*".equals(candidate) || weak(candidate).equals(weak(etag)));
+    }
+
+    private static String weak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private record Key(String path, @Nullable Long userId) {
+
+        String resource() {
+            int query = path.indexOf('?');
+            return query < 0 ? path : path.substring(0, query);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    private long maxEntries = 10_000;
+
+    /**
+     * Upper bound on staleness for changes the gateway does not proxy itself, e.g. writes through another node.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+}
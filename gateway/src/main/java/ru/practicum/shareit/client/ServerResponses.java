@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+@UtilityClass
+class ServerResponses {
+
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH);
+
+    static ResponseEntity<Object> relay(HttpStatusCode status, HttpHeaders serverHeaders, byte[] body) {
+        if (status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            // the validators are all the client needs, a 304 never has a body
+            return ResponseEntity.status(status).headers(relayedHeaders(serverHeaders)).build();
+        }
+        if (status.is2xxSuccessful()) {
+            // the server's JSON is relayed as is, without building an object graph on the gateway
+            return ResponseEntity.status(status).headers(relayedHeaders(serverHeaders)).body(body);
+        }
+        return ResponseEntity.status(status).body(body);
+    }
+
+    private static HttpHeaders relayedHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(serverHeaders);
+        HOP_BY_HOP_HEADERS.forEach(headers::remove);
+        return headers;
+    }
+}
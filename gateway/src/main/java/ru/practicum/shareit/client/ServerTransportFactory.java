@@ -0,0 +1,10 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Creates a {@link ServerTransport} rooted at one API prefix of shareit-server, sharing the configured pool.
+ */
+@FunctionalInterface
+public interface ServerTransportFactory {
+
+    ServerTransport create(String baseUrl);
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+
+/**
+ * Non-blocking transport: requests are multiplexed over the shared Reactor Netty pool and no thread waits for
+ * the server.
+ */
+public class WebClientTransport implements ServerTransport {
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private final WebClient webClient;
+
+    public WebClientTransport(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters, HttpEntity<?> request) {
+        WebClient.RequestBodySpec spec = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(request.getHeaders()));
+        WebClient.RequestHeadersSpec<?> call;
+        if (request.getBody() instanceof InputStreamResource stream) {
+            call = spec.body(BodyInserters.fromDataBuffers(read(stream)));
+        } else if (request.getBody() != null) {
+            call = spec.bodyValue(request.getBody());
+        } else {
+            call = spec;
+        }
+        return call.exchangeToMono(response -> response.bodyToMono(byte[].class)
+                .defaultIfEmpty(EMPTY)
+                .map(body -> ServerResponses.relay(response.statusCode(), response.headers().asHttpHeaders(), body)));
+    }
+
+    /**
+     * Reads a blocking stream, such as a servlet request body, off the event loop: a slow upload would otherwise
+     * stall every connection sharing the loop.
+     */
+    private static Flux<DataBuffer> read(InputStreamResource stream) {
+        return DataBufferUtils.readInputStream(stream::getInputStream, DefaultDataBufferFactory.sharedInstance,
+                        STREAM_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -1,56 +1,131 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    // an item request lists the items created for it
+    private static final String REQUESTS = "/requests/";
+
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, ServerTransportFactory transports,
+                      ResponseCache responseCache, ObjectMapper objectMapper, Validator validator) {
+        super(transports.create(serverUrl + API_PREFIX));
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
 
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItem(long userId, long itemId, @Nullable String ifNoneMatch) {
+        return responseCache.get(API_PREFIX + "/" + itemId, userId, ifNoneMatch,
+                () -> conditionalGet("/" + itemId, userId, ifNoneMatch));
+    }
+
+    /**
+     * Not cached here: bookings change availability without passing through this client.
+     */
+    public Mono<ResponseEntity<Object>> getAvailability(long userId, long itemId, LocalDateTime from,
+                                                        LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItems(long userId) {
+    public Mono<ResponseEntity<Object>> getItems(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemsByText(long userId, String text) {
+    public Mono<ResponseEntity<Object>> getItemsByText(long userId, String text, @Nullable LocalDateTime start,
+                                                       @Nullable LocalDateTime end, int from, int size) {
+        if (start == null || end == null) {
+            Map<String, Object> parameters = Map.of(
+                    "text", text,
+                    "from", from,
+                    "size", size
+            );
+            return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
-                "state", text
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
         );
-        return get("/search?text={text}", userId, parameters);
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> create(long userId, ItemDto itemDto) {
+        return responseCache.invalidating(post("", userId, itemDto), REQUESTS);
+    }
+
+    /**
+     * Streams the NDJSON payload to the server with the lines failing validation blanked out, then reports them
+     * alongside the lines the server rejected.
+     */
+    public Mono<ResponseEntity<Object>> importItems(long userId, InputStream ndjson) {
+        ItemImportStream lines = new ItemImportStream(ndjson, objectMapper, validator);
+        return responseCache.invalidating(postStream("/batch", userId, MediaType.APPLICATION_NDJSON, lines), REQUESTS)
+                .map(response -> response.getStatusCode().is2xxSuccessful()
+                        ? withErrors(response, lines.getErrors())
+                        : response);
     }
 
-    public ResponseEntity<Object> create(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Object>> update(long userId, long itemId, ItemDto itemDto) {
+        return responseCache.invalidating(patch("/" + itemId, userId, itemDto), API_PREFIX + "/" + itemId, REQUESTS);
     }
 
-    public ResponseEntity<Object> update(long userId, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentDto commentDto) {
+        return responseCache.invalidating(post("/" + itemId + "/comment", userId, commentDto),
+                API_PREFIX + "/" + itemId);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    private ResponseEntity<Object> withErrors(ResponseEntity<Object> response, List<ItemImportErrorDto> errors) {
+        if (errors.isEmpty()) {
+            return response;
+        }
+        try {
+            ItemImportResultDto result = objectMapper.readValue((byte[]) response.getBody(), ItemImportResultDto.class);
+            List<ItemImportErrorDto> merged = new ArrayList<>(errors);
+            merged.addAll(result.getErrors());
+            merged.sort(Comparator.comparingLong(ItemImportErrorDto::getLine));
+            result.setErrors(merged);
+            return ResponseEntity.status(response.getStatusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(objectMapper.writeValueAsBytes(result));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -1,7 +1,12 @@
 package ru.practicum.shareit.item;
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -13,9 +18,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
 
 @Slf4j
 @Validated
@@ -26,34 +36,70 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @PathVariable Long itemId,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                    String ifNoneMatch) {
         log.info("GET /items/itemId: getItemsById - {}, user id - {}", itemId, userId);
-        return itemClient.getItem(userId, itemId);
+        return itemClient.getItem(userId, itemId, ifNoneMatch);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /items/id/availability: getAvailability of item {} from {} to {}, user id - {}",
+                itemId, from, to, userId);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Start of the period must be before its end.");
+        }
+        return itemClient.getAvailability(userId, itemId, from, to);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("GET /items: getItemsByUserId by user id - {}", userId);
         return itemClient.getItems(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsByText(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @RequestParam String text) {
-        log.info("GET /items/search: getItemsByText - {}", text);
-        return itemClient.getItemsByText(userId, text);
+    public Mono<ResponseEntity<Object>> getItemsByText(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam String text,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("GET /items/search: getItemsByText - {}, start - {}, end - {}, from - {}, size - {}",
+                text, start, end, from, size);
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Both start and end of the period are expected.");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ValidationException("Start of the period must be before its end.");
+        }
+        return itemClient.getItemsByText(userId, text, start, end, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @Validated @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @Validated @RequestBody ItemDto itemDto) {
         log.info("POST /items: create items {} - where owner {}", itemDto, userId);
         System.out.println(itemDto);
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Object>> importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    InputStream ndjson) {
+        log.info("POST /items/batch: importItems where owner {}", userId);
+        return itemClient.importItems(userId, ndjson);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(
+    public Mono<ResponseEntity<Object>> update(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @PathVariable Long itemId,
             @RequestBody ItemDto itemDto) {
@@ -62,7 +108,7 @@ public class ItemController {
     }
 
     @PostMapping("{itemId}/comment")
-    public ResponseEntity<Object> addComment(
+    public Mono<ResponseEntity<Object>> addComment(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @PathVariable Long itemId,
             @Validated @RequestBody CommentDto commentDto) {
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * NDJSON item import as it is forwarded to shareit-server: read a line at a time, valid lines pass through
+ * unchanged and invalid ones are replaced by an empty line, so line numbers reported by the server still match
+ * the caller's payload. The errors found here are available once the stream has been read to the end.
+ */
+class ItemImportStream extends InputStream {
+
+    private static final byte[] EMPTY_LINE = {'\n'};
+
+    private final BufferedReader lines;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final List<ItemImportErrorDto> errors = new ArrayList<>();
+
+    private byte[] current = new byte[0];
+    private int position;
+    private long lineNumber;
+
+    ItemImportStream(InputStream ndjson, ObjectMapper objectMapper, Validator validator) {
+        this.lines = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length - position);
+        System.arraycopy(current, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+
+    List<ItemImportErrorDto> getErrors() {
+        return errors;
+    }
+
+    private boolean fill() throws IOException {
+        while (position == current.length) {
+            String line = lines.readLine();
+            if (line == null) {
+                return false;
+            }
+            lineNumber++;
+            current = accept(line) ? (line + '\n').getBytes(StandardCharsets.UTF_8) : EMPTY_LINE;
+            position = 0;
+        }
+        return true;
+    }
+
+    private boolean accept(String line) {
+        if (line.isBlank()) {
+            return false;
+        }
+        ItemDto item;
+        try {
+            item = objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            errors.add(new ItemImportErrorDto(lineNumber, "Malformed item: " + e.getOriginalMessage()));
+            return false;
+        }
+        List<ConstraintViolation<ItemDto>> violations = new ArrayList<>(validator.validate(item));
+        if (violations.isEmpty()) {
+            return true;
+        }
+        errors.add(new ItemImportErrorDto(lineNumber, violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining("; "))));
+        return false;
+    }
+}
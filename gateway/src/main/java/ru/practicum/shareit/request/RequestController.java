@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.RequestDto;
 
 @Slf4j
@@ -27,20 +28,20 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                         @Valid @RequestBody RequestDto dto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @Valid @RequestBody RequestDto dto) {
         log.info("POST /requests: create ItemRequest - {}, by user id - {}", dto, userId);
         return requestClient.create(userId, dto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemRequestByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> getAllItemRequestByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("GET /requests: getAllByUserId by user id - {}", userId);
         return requestClient.getRequestsByUserId(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItemRequestExceptUserId(
+    public Mono<ResponseEntity<Object>> getAllItemRequestExceptUserId(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
@@ -49,8 +50,8 @@ public class RequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                          @PathVariable("requestId") Long requestId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @PathVariable("requestId") Long requestId) {
         log.info("GET /requests/id: getById requestId - {}, by user id - {}", requestId, userId);
         return requestClient.getRequestById(userId, requestId);
     }
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @RestController
@@ -26,32 +27,32 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@Positive @PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getById(@Positive @PathVariable Long userId) {
         log.info("GET /users/userId: getById - {}", userId);
         return userClient.getUserById(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         log.info("GET /users: getAll");
         return userClient.getAllUser();
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto user) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserDto user) {
         log.info("POST /users: create: {}", user);
         return userClient.create(user);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@PathVariable Long userId, @RequestBody UserDto newUser) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable Long userId, @RequestBody UserDto newUser) {
         log.info("PATCH /users: update: {}, by id - {}", newUser, userId);
         return userClient.update(userId, newUser);
     }
 
     @DeleteMapping("/{userId}")
-    public void deleteById(@Positive @PathVariable Long userId) {
+    public Mono<Void> deleteById(@Positive @PathVariable Long userId) {
         log.info("DELETE /users/userId: deleteById - {}", userId);
-        userClient.delete(userId);
+        return userClient.delete(userId).then();
     }
 }
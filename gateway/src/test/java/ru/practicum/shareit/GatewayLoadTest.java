@@ -0,0 +1,116 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends a burst of requests through the gateway to a stub shareit-server that answers after a fixed delay.
+ * The stub records the peak number of requests in flight, which is the concurrency ceiling of the gateway.
+ * Run with {@code mvn test -pl gateway -Dtest=GatewayLoadTest -Dbenchmark=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GatewayLoadTest {
+
+    private static final int REQUESTS = 1_000;
+    private static final long SERVER_DELAY_MS = 500;
+    private static final byte[] USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@example.com\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    private HttpServer server;
+
+    @BeforeEach
+    void before() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(SERVER_DELAY_MS);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, USER.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(USER);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void after() {
+        server.stop(0);
+    }
+
+    @Test
+    void gateway_whenVirtualThreads_thenConcurrencyCeilingAboveTomcatPool() throws Exception {
+        int platformPeak = run(false, "blocking");
+        int virtualPeak = run(true, "blocking");
+
+        assertTrue(virtualPeak > platformPeak, "virtual " + virtualPeak + " <= platform " + platformPeak);
+    }
+
+    @Test
+    void gateway_whenReactiveTransport_thenConcurrencyCeilingAboveTomcatPool() throws Exception {
+        int platformPeak = run(false, "blocking");
+        int reactivePeak = run(false, "reactive");
+
+        assertTrue(reactivePeak > platformPeak, "reactive " + reactivePeak + " <= platform " + platformPeak);
+    }
+
+    private int run(boolean virtualThreads, String transport) throws Exception {
+        peak.set(0);
+        try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--shareit-server.transport=" + transport,
+                        "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                        "--logging.level.ru.practicum=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=INFO");
+             HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            URI uri = URI.create("http://localhost:" + gateway.getEnvironment().getProperty("local.server.port")
+                    + "/users/1");
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            long started = System.nanoTime();
+            List<CompletableFuture<HttpResponse<Void>>> responses = IntStream.range(0, REQUESTS)
+                    .mapToObj(i -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+                    .toList();
+            long ok = responses.stream().map(CompletableFuture::join).filter(r -> r.statusCode() == 200).count();
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+            log.info("{} transport, virtual threads {}: {}/{} ok in {} ms, peak in-flight at server {}",
+                    transport, virtualThreads, ok, REQUESTS, elapsedMs, peak.get());
+            return peak.get();
+        }
+    }
+}
@@ -9,14 +9,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.AsyncMockMvc;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatusRequestDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -29,6 +38,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -44,6 +54,9 @@ class BookingControllerTest {
     @MockBean
     private BookingClient bookingClient;
 
+    @MockBean
+    private BookingEventStream bookingEventStream;
+
     private BookItemRequestDto bookingDto;
 
     @BeforeEach
@@ -55,10 +68,10 @@ class BookingControllerTest {
     void getBookings_whenInvoked_thenStatusOkAndReturnListBookings() throws Exception {
         LocalDateTime data = LocalDateTime.now();
         bookingDto = new BookItemRequestDto(1L, data, data.plusDays(1));
-        when(bookingClient.getBookings(anyLong(), any(BookingState.class), anyInt(), anyInt()))
-                .thenReturn(ResponseEntity.ok(List.of(bookingDto)));
+        when(bookingClient.getBookings(anyLong(), any(BookingState.class), any(), anyInt(), anyInt()))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(bookingDto))));
 
-        mockMvc.perform(get("/bookings")
+        AsyncMockMvc.perform(mockMvc, get("/bookings")
                         .header("X-Sharer-User-Id", "1")
                         .param("state", "ALL")
                         .param("from", "0")
@@ -70,53 +83,53 @@ class BookingControllerTest {
 
     @Test
     void getBookings_whenInvalidState_thenStatusBadRequest() throws Exception {
-        when(bookingClient.getBookings(anyLong(), any(BookingState.class), anyInt(), anyInt()))
-                .thenReturn(ResponseEntity.badRequest().build());
+        when(bookingClient.getBookings(anyLong(), any(BookingState.class), any(), anyInt(), anyInt()))
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
 
-        mockMvc.perform(get("/bookings")
+        AsyncMockMvc.perform(mockMvc, get("/bookings")
                         .header("X-Sharer-User-Id", "1")
                         .param("state", "INVALID"))
                 .andExpect(status().isBadRequest())
                 .andReturn();
-        verify(bookingClient, never()).getBookings(1L, BookingState.ALL, 1, 1);
+        verify(bookingClient, never()).getBookings(1L, BookingState.ALL, null, 1, 1);
     }
 
     @Test
     void getBookings_whenInvalidFrom_thenStatusBadRequest() throws Exception {
-        when(bookingClient.getBookings(anyLong(), any(BookingState.class), anyInt(), anyInt()))
-                .thenReturn(ResponseEntity.badRequest().build());
+        when(bookingClient.getBookings(anyLong(), any(BookingState.class), any(), anyInt(), anyInt()))
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
 
-        mockMvc.perform(get("/bookings")
+        AsyncMockMvc.perform(mockMvc, get("/bookings")
                         .header("X-Sharer-User-Id", "1")
                         .param("state", "ALL")
                         .param("from", "-1")
                         .param("size", "10"))
                 .andExpect(status().isBadRequest())
                 .andReturn();
-        verify(bookingClient, never()).getBooking(1L, 1L);
+        verify(bookingClient, never()).getBooking(1L, 1L, null);
     }
 
     @Test
     void getBookings_whenInvalidSize_thenStatusBadRequest() throws Exception {
-        when(bookingClient.getBookings(anyLong(), any(BookingState.class), anyInt(), anyInt()))
-                .thenReturn(ResponseEntity.badRequest().build());
+        when(bookingClient.getBookings(anyLong(), any(BookingState.class), any(), anyInt(), anyInt()))
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
 
-        mockMvc.perform(get("/bookings")
+        AsyncMockMvc.perform(mockMvc, get("/bookings")
                         .header("X-Sharer-User-Id", "1")
                         .param("state", "ALL")
                         .param("from", "0")
                         .param("size", "0"))
                 .andExpect(status().isBadRequest())
                 .andReturn();
-        verify(bookingClient, never()).getBooking(1L, 1L);
+        verify(bookingClient, never()).getBooking(1L, 1L, null);
     }
 
     @Test
     void bookItem_whenValidRequest_thenStatusOkAndReturnBooking() throws Exception {
         when(bookingClient.bookItem(anyLong(), any(BookItemRequestDto.class)))
-                .thenReturn(ResponseEntity.ok(bookingDto));
+                .thenReturn(Mono.just(ResponseEntity.ok(bookingDto)));
 
-        mockMvc.perform(post("/bookings")
+        AsyncMockMvc.perform(mockMvc, post("/bookings")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content((objectMapper.writeValueAsString(bookingDto))))
@@ -128,10 +141,10 @@ class BookingControllerTest {
     @Test
     void bookItem_whenInvalidRequest_thenStatusBadRequest() throws Exception {
         bookingDto = new BookItemRequestDto(1L, null, LocalDateTime.now());
-        when(bookingClient.getBookings(anyLong(), any(BookingState.class), anyInt(), anyInt()))
-                .thenReturn(ResponseEntity.badRequest().build());
+        when(bookingClient.getBookings(anyLong(), any(BookingState.class), any(), anyInt(), anyInt()))
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
 
-        mockMvc.perform(post("/bookings")
+        AsyncMockMvc.perform(mockMvc, post("/bookings")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(bookingDto)))
@@ -143,9 +156,9 @@ class BookingControllerTest {
 
     @Test
     void getBooking_whenValidRequest_thenStatusOkAndReturnBooking() throws Exception {
-        when(bookingClient.getBooking(anyLong(), anyLong())).thenReturn(ResponseEntity.ok(bookingDto));
+        when(bookingClient.getBooking(anyLong(), anyLong(), any())).thenReturn(Mono.just(ResponseEntity.ok(bookingDto)));
 
-        mockMvc.perform(get("/bookings/1")
+        AsyncMockMvc.perform(mockMvc, get("/bookings/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(bookingDto))
                         .header("X-Sharer-User-Id", "1"))
@@ -156,9 +169,9 @@ class BookingControllerTest {
     @Test
     void changeStatus_whenValidRequest_thenStatusOkAndReturnBooking() throws Exception {
         when(bookingClient.changeStatus(anyLong(), anyLong(), anyBoolean()))
-                .thenReturn(ResponseEntity.ok(bookingDto));
+                .thenReturn(Mono.just(ResponseEntity.ok(bookingDto)));
 
-        mockMvc.perform(patch("/bookings/1")
+        AsyncMockMvc.perform(mockMvc, patch("/bookings/1")
                         .header("X-Sharer-User-Id", "1")
                         .param("approved", "true"))
                 .andExpect(status().isOk())
@@ -170,9 +183,9 @@ class BookingControllerTest {
     @Test
     void changeStatus_whenInvalidBookingId_thenStatusBadRequest() throws Exception {
         when(bookingClient.changeStatus(anyLong(), anyInt(), anyBoolean()))
-                .thenReturn(ResponseEntity.badRequest().build());
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
 
-        mockMvc.perform(patch("/bookings/-1")
+        AsyncMockMvc.perform(mockMvc, patch("/bookings/-1")
                         .header("X-Sharer-User-Id", "1")
                         .param("approved", "true"))
                 .andExpect(status().isBadRequest())
@@ -180,29 +193,76 @@ class BookingControllerTest {
         verify(bookingClient, never()).changeStatus(1L, 1L, true);
     }
 
+    @Test
+    void changeStatuses_whenValidRequest_thenStatusOkAndResultsRelayed() throws Exception {
+        when(bookingClient.changeStatuses(anyLong(), any(BookingStatusRequestDto.class)))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of())));
+
+        AsyncMockMvc.perform(mockMvc, patch("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingStatusRequestDto(List.of(1L, 2L), true))))
+                .andExpect(status().isOk())
+                .andReturn();
+        verify(bookingClient, times(1)).changeStatuses(anyLong(), any(BookingStatusRequestDto.class));
+    }
+
+    @Test
+    void changeStatuses_whenNoBookingIds_thenStatusBadRequest() throws Exception {
+        AsyncMockMvc.perform(mockMvc, patch("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BookingStatusRequestDto(List.of(), true))))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        verify(bookingClient, never()).changeStatuses(anyLong(), any(BookingStatusRequestDto.class));
+    }
+
     @Test
     void getBookingsAllItemsByUserId_whenValidRequest_thenStatusOkAndReturnBooking() throws Exception {
-        when(bookingClient.getBookingsOwner(anyLong(), any(BookingState.class)))
-                .thenReturn(ResponseEntity.ok(List.of(bookingDto)));
+        when(bookingClient.getBookingsOwner(anyLong(), any(BookingState.class), any(), anyInt(), anyInt()))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(bookingDto))));
 
-        mockMvc.perform(get("/bookings/owner")
+        AsyncMockMvc.perform(mockMvc, get("/bookings/owner")
                         .header("X-Sharer-User-Id", "1")
                         .param("state", "ALL"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
-        verify(bookingClient, times(1)).getBookingsOwner(1L, BookingState.ALL);
+        verify(bookingClient, times(1)).getBookingsOwner(1L, BookingState.ALL, null, 0, 10);
     }
 
     @Test
     void getBookingsAllItemsByUserId_whenInvalidState_thenStatusBadRequest() throws Exception {
-        when(bookingClient.getBookingsOwner(anyLong(), any(BookingState.class)))
-                .thenReturn(ResponseEntity.badRequest().build());
+        when(bookingClient.getBookingsOwner(anyLong(), any(BookingState.class), any(), anyInt(), anyInt()))
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
 
-        mockMvc.perform(get("/bookings/owner")
+        AsyncMockMvc.perform(mockMvc, get("/bookings/owner")
                         .header("X-Sharer-User-Id", "1")
                         .param("state", "INVALID"))
                 .andExpect(status().isBadRequest())
                 .andReturn();
     }
+
+    @Test
+    void streamEvents_whenInvoked_thenEventsOfCallerStreamed() throws Exception {
+        when(bookingEventStream.subscribe(2L)).thenReturn(Flux.just(ServerSentEvent.builder(
+                        new BookingEventDto(5L, 1L, 2L, "APPROVED"))
+                .id("7")
+                .event("BOOKING_STATUS_CHANGED")
+                .build()));
+
+        // the stream is written while the request is still async, there is no dispatch to wait for
+        MvcResult result = mockMvc.perform(get("/bookings/stream")
+                        .header("X-Sharer-User-Id", "2"))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("id:7")))
+                .andExpect(content().string(containsString("\"status\":\"APPROVED\"")))
+                .andReturn();
+
+        // only the stream is left open, the other endpoints keep the global async timeout
+        assertEquals(-1, result.getRequest().getAsyncContext().getTimeout());
+    }
 }
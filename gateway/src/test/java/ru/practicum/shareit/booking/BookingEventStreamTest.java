@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.client.HttpClientProperties;
+import ru.practicum.shareit.client.WebClientConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BookingEventStreamTest {
+
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private Sinks.Many<DataBuffer> upstream;
+    private BookingEventStream stream;
+
+    @BeforeEach
+    void before() {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            upstream = Sinks.many().unicast().onBackpressureBuffer();
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                    .body(upstream.asFlux())
+                    .build());
+        });
+        stream = new BookingEventStream(builder, new SimpleMeterRegistry(), "http://server",
+                Duration.ofMillis(10), Duration.ofHours(1), Duration.ofSeconds(60));
+    }
+
+    @Test
+    void subscribe_whenManySubscribers_thenOneUpstreamAndEventsOnlyToTheirBooker() {
+        List<ServerSentEvent<BookingEventDto>> first = new CopyOnWriteArrayList<>();
+        List<ServerSentEvent<BookingEventDto>> second = new CopyOnWriteArrayList<>();
+        List<ServerSentEvent<BookingEventDto>> other = new CopyOnWriteArrayList<>();
+        Disposable firstSubscription = stream.subscribe(1L).subscribe(first::add);
+        Disposable secondSubscription = stream.subscribe(1L).subscribe(second::add);
+        Disposable otherSubscription = stream.subscribe(2L).subscribe(other::add);
+
+        emit(1L, 1L, "WAITING");
+        emit(2L, 3L, "WAITING");
+        emit(3L, 1L, "APPROVED");
+
+        assertEquals(1, requests.size());
+        assertEquals(List.of(1L, 3L), bookingIds(first));
+        assertEquals(List.of(1L, 3L), bookingIds(second));
+        assertEquals(List.of(), other);
+        firstSubscription.dispose();
+        secondSubscription.dispose();
+        otherSubscription.dispose();
+    }
+
+    @Test
+    void subscribe_whenUpstreamEnds_thenReconnectsAfterLastEvent() throws Exception {
+        List<ServerSentEvent<BookingEventDto>> events = new CopyOnWriteArrayList<>();
+        Disposable subscription = stream.subscribe(1L).subscribe(events::add);
+        emit(4L, 1L, "WAITING");
+
+        upstream.tryEmitComplete();
+        for (int i = 0; i < 100 && requests.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        emit(5L, 1L, "REJECTED");
+
+        assertNull(requests.get(0).headers().getFirst("Last-Event-ID"));
+        assertEquals("4", requests.get(1).headers().getFirst("Last-Event-ID"));
+        assertEquals(List.of(1L, 1L), events.stream().map(event -> event.data().getBookerId()).toList());
+        subscription.dispose();
+    }
+
+    @Test
+    void subscribe_whenReactiveTransportAndUpstreamIdleLongerThanReadTimeout_thenStreamKeptOpen() throws Exception {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setReadTimeout(Duration.ofMillis(200));
+        WebClientConfig config = new WebClientConfig();
+        ConnectionProvider connectionProvider = config.shareitServerConnectionProvider(properties);
+        // with the reactive transport Boot applies its connector to every WebClient.Builder
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(config.shareitServerConnector(connectionProvider, properties));
+        AtomicInteger connections = new AtomicInteger();
+        CountDownLatch closed = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings/events", exchange -> {
+            connections.incrementAndGet();
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                write(body, event(6L, 1L, "WAITING"));
+                Thread.sleep(600);
+                write(body, event(7L, 1L, "APPROVED"));
+                closed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.start();
+        try {
+            BookingEventStream reactive = new BookingEventStream(builder, new SimpleMeterRegistry(),
+                    "http://localhost:" + server.getAddress().getPort(), Duration.ofMillis(10), Duration.ofHours(1),
+                    Duration.ofSeconds(60));
+            List<ServerSentEvent<BookingEventDto>> events = new CopyOnWriteArrayList<>();
+            Disposable subscription = reactive.subscribe(1L).subscribe(events::add);
+            for (int i = 0; i < 300 && events.size() < 2; i++) {
+                Thread.sleep(10);
+            }
+            subscription.dispose();
+
+            assertEquals(List.of(6L, 7L), bookingIds(events));
+            assertEquals(1, connections.get());
+        } finally {
+            closed.countDown();
+            server.stop(0);
+            executor.close();
+            connectionProvider.dispose();
+        }
+    }
+
+    private void emit(long id, long bookerId, String status) {
+        upstream.tryEmitNext(DefaultDataBufferFactory.sharedInstance.wrap(
+                event(id, bookerId, status).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String event(long id, long bookerId, String status) {
+        return "id:" + id + "\nevent:BOOKING_STATUS_CHANGED\ndata:{\"bookingId\":" + id + ",\"itemId\":10,"
+                + "\"bookerId\":" + bookerId + ",\"status\":\"" + status + "\"}\n\n";
+    }
+
+    private static void write(OutputStream body, String event) throws IOException {
+        body.write(event.getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+
+    private static List<Long> bookingIds(List<ServerSentEvent<BookingEventDto>> events) {
+        return events.stream().map(event -> event.data().getBookingId()).toList();
+    }
+}
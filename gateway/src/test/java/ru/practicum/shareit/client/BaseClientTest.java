@@ -0,0 +1,186 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+
+    private static final byte[] BODY = "[{\"id\":1,\"name\":\"item\"}]".getBytes(StandardCharsets.UTF_8);
+
+    private MockRestServiceServer server;
+    private BaseClient client;
+
+    @BeforeEach
+    void before() {
+        RestTemplate rest = new RestTemplate();
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient(new RestTemplateTransport(rest));
+    }
+
+    @Test
+    void get_whenSuccess_thenBodyRelayedAsRawBytesWithHeaders() {
+        server.expect(requestTo("/items"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON)
+                        .header("X-Next-Cursor", "abc")
+                        .header(HttpHeaders.TRANSFER_ENCODING, "chunked"));
+
+        ResponseEntity<Object> response = client.get("/items", 1L).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(BODY, (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertNull(response.getHeaders().getFirst(HttpHeaders.TRANSFER_ENCODING));
+        server.verify();
+    }
+
+    @Test
+    void get_whenServerError_thenStatusAndBodyRelayed() {
+        server.expect(requestTo("/items/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).body(BODY));
+
+        ResponseEntity<Object> response = client.get("/items/1", 1L).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(BODY, (byte[]) response.getBody());
+    }
+
+    @Test
+    void conditionalGet_whenNotModified_thenValidatorForwardedAndStatusRelayedWithETag() {
+        server.expect(requestTo("/items/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "W/\"1a\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, "W/\"1a\""));
+
+        ResponseEntity<Object> response = client.conditionalGet("/items/1", 1L, "W/\"1a\"").block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("W/\"1a\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        server.verify();
+    }
+
+    @Test
+    void conditionalGet_whenReactiveTransportAndNotModified_thenStatusRelayedWithoutBody() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED)
+                        .header(HttpHeaders.ETAG, request.headers().getFirst(HttpHeaders.IF_NONE_MATCH))
+                        .build()))
+                .build();
+
+        ResponseEntity<Object> response = new BaseClient(new WebClientTransport(webClient))
+                .conditionalGet("/items/1", 1L, "W/\"1a\"")
+                .block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("W/\"1a\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void postStream_whenInvoked_thenBodyForwardedWithContentType() {
+        server.expect(requestTo("/items/batch"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().bytes(BODY))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.postStream("/items/batch", 1L, MediaType.APPLICATION_NDJSON,
+                new ByteArrayInputStream(BODY)).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        server.verify();
+    }
+
+    @Test
+    void postStream_whenReactiveTransport_thenBodyReadOffTheEventLoop() {
+        List<String> readers = new CopyOnWriteArrayList<>();
+        ByteArrayInputStream body = new ByteArrayInputStream(BODY) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                readers.add(Thread.currentThread().getName());
+                return super.read(buffer, offset, length);
+            }
+        };
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    MockClientHttpRequest sent = new MockClientHttpRequest(request.method(), URI.create("/"));
+                    return request.writeTo(sent, ExchangeStrategies.withDefaults())
+                            .then(Mono.defer(sent::getBodyAsString))
+                            .map(sentBody -> ClientResponse.create(HttpStatus.OK).body(sentBody).build());
+                })
+                .build();
+
+        ResponseEntity<Object> response = new BaseClient(new WebClientTransport(webClient))
+                .postStream("/items/batch", 1L, MediaType.APPLICATION_NDJSON, body)
+                .block();
+
+        assertArrayEquals(BODY, (byte[]) response.getBody());
+        assertTrue(readers.stream().allMatch(reader -> reader.toLowerCase().contains("boundedelastic")), readers.toString());
+    }
+
+    @Test
+    void get_whenReactiveTransport_thenBodyRelayedAsRawBytesWithHeaders() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .header("X-Next-Cursor", "abc")
+                        .header("X-Sharer-User-Id", request.headers().getFirst("X-Sharer-User-Id"))
+                        .body(new String(BODY, StandardCharsets.UTF_8))
+                        .build()))
+                .build();
+
+        ResponseEntity<Object> response = new BaseClient(new WebClientTransport(webClient)).get("/items", 1L).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(BODY, (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals("1", response.getHeaders().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void get_whenReactiveTransportAndServerError_thenStatusAndBodyRelayed() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND)
+                        .body(new String(BODY, StandardCharsets.UTF_8))
+                        .build()))
+                .build();
+
+        ResponseEntity<Object> response = new BaseClient(new WebClientTransport(webClient)).get("/items/1", 1L)
+                .block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(BODY, (byte[]) response.getBody());
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HttpClientConfigTest {
+
+    private final HttpClientConfig config = new HttpClientConfig();
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @BeforeEach
+    void before() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxConnections(50);
+        properties.setMaxConnectionsPerRoute(20);
+        connectionManager = config.shareitServerConnectionManager(properties);
+    }
+
+    @AfterEach
+    void after() {
+        connectionManager.close();
+    }
+
+    @Test
+    void shareitServerConnectionManager_whenConfigured_thenPoolSizedFromProperties() {
+        assertEquals(50, connectionManager.getMaxTotal());
+        assertEquals(20, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    void shareitServerPoolMetrics_whenBound_thenGaugesReportPoolStats() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        config.shareitServerPoolMetrics(connectionManager).bindTo(registry);
+
+        assertEquals(0, registry.get("shareit.gateway.http.pool.leased").gauge().value());
+        assertEquals(0, registry.get("shareit.gateway.http.pool.pending").gauge().value());
+        assertEquals(0, registry.get("shareit.gateway.http.pool.available").gauge().value());
+        assertEquals(50, registry.get("shareit.gateway.http.pool.max").gauge().value());
+    }
+}
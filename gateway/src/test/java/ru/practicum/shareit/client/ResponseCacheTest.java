@@ -0,0 +1,177 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private SimpleMeterRegistry registry;
+    private ResponseCache cache;
+
+    @BeforeEach
+    void before() {
+        registry = new SimpleMeterRegistry();
+        cache = new ResponseCache(new ResponseCacheProperties(), registry);
+    }
+
+    @Test
+    void get_whenCalledTwice_thenSecondServedFromCache() {
+        cache.get("/items/1", 1L, loader(ResponseEntity.ok("item"))).block();
+        ResponseEntity<Object> response = cache.get("/items/1", 1L, loader(ResponseEntity.ok("item"))).block();
+
+        assertEquals("item", response.getBody());
+        assertEquals(1, loads.get());
+        assertEquals(1, registry.counter("shareit.gateway.cache.hits").count());
+        assertEquals(1, registry.counter("shareit.gateway.cache.misses").count());
+    }
+
+    @Test
+    void get_whenOtherUser_thenLoadedSeparately() {
+        cache.get("/items/1", 1L, loader(ResponseEntity.ok("owner view"))).block();
+        ResponseEntity<Object> response = cache.get("/items/1", 2L, loader(ResponseEntity.ok("item"))).block();
+
+        assertEquals("item", response.getBody());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_whenNotFound_thenNotCached() {
+        cache.get("/items/1", 1L, loader(ResponseEntity.notFound().build())).block();
+        cache.get("/items/1", 1L, loader(ResponseEntity.notFound().build())).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_whenCachedETagMatches_thenNotModifiedWithoutLoad() {
+        cache.get("/items/1", 1L, loader(ResponseEntity.ok().eTag("W/\"1a\"").body("item"))).block();
+
+        ResponseEntity<Object> response = cache.get("/items/1", 1L, "\"0f\", W/\"1a\"",
+                loader(ResponseEntity.ok("item"))).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("W/\"1a\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_whenCachedETagDiffers_thenCachedResponseServed() {
+        cache.get("/items/1", 1L, loader(ResponseEntity.ok().eTag("W/\"1a\"").body("item"))).block();
+
+        ResponseEntity<Object> response = cache.get("/items/1", 1L, "W/\"0f\"",
+                loader(ResponseEntity.ok("item"))).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("item", response.getBody());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_whenServerAnswersNotModified_thenNotCached() {
+        cache.get("/items/1", 1L, "W/\"1a\"", loader(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build())).block();
+        cache.get("/items/1", 1L, "W/\"1a\"", loader(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build())).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidating_whenWriteCompletes_thenResourceReloadedForEveryUser() {
+        cache.get("/items/1", 1L, loader(ResponseEntity.ok("old"))).block();
+        cache.get("/items/1", 2L, loader(ResponseEntity.ok("old"))).block();
+        cache.get("/items/2", 1L, loader(ResponseEntity.ok("other"))).block();
+
+        cache.invalidating(Mono.just(ResponseEntity.ok("patched")), "/items/1").block();
+
+        assertEquals("new", cache.get("/items/1", 1L, loader(ResponseEntity.ok("new"))).block().getBody());
+        assertEquals("new", cache.get("/items/1", 2L, loader(ResponseEntity.ok("new"))).block().getBody());
+        assertEquals("other", cache.get("/items/2", 1L, loader(ResponseEntity.ok("new"))).block().getBody());
+    }
+
+    @Test
+    void invalidating_whenPrefix_thenEveryResourceUnderItReloaded() {
+        cache.get("/items/1", 1L, loader(ResponseEntity.ok("old"))).block();
+        cache.get("/users/1", null, loader(ResponseEntity.ok("user"))).block();
+
+        cache.invalidating(Mono.just(ResponseEntity.ok("booking")), "/items/").block();
+
+        assertEquals("new", cache.get("/items/1", 1L, loader(ResponseEntity.ok("new"))).block().getBody());
+        assertEquals("user", cache.get("/users/1", null, loader(ResponseEntity.ok("new"))).block().getBody());
+    }
+
+    @Test
+    void get_whenInvalidatedWhileLoading_thenLoadedResponseNotStored() {
+        Mono<ResponseEntity<Object>> slowLoad = cache.get("/items/1", 1L, () -> {
+            loads.incrementAndGet();
+            return Mono.defer(() -> {
+                cache.invalidating(Mono.just(ResponseEntity.ok("patched")), "/items/1").block();
+                return Mono.just(ResponseEntity.ok("stale"));
+            });
+        });
+
+        slowLoad.block();
+
+        assertEquals("new", cache.get("/items/1", 1L, loader(ResponseEntity.ok("new"))).block().getBody());
+    }
+
+    @Test
+    void get_whenInvalidatedWhileStoring_thenLoadedResponseNotKept() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 2000; i++) {
+                String path = "/items/" + i;
+                CyclicBarrier loaded = new CyclicBarrier(2);
+                // the load starts before the write, whichever ends first
+                Future<?> read = executor.submit(() -> cache.get(path, 1L, () -> Mono.fromCallable(() -> {
+                    loaded.await();
+                    return ResponseEntity.ok((Object) "stale");
+                })).block());
+                Future<?> write = executor.submit(() -> {
+                    loaded.await();
+                    return cache.invalidating(Mono.just(ResponseEntity.ok("patched")), path).block();
+                });
+                read.get();
+                write.get();
+
+                assertEquals("new", cache.get(path, 1L, loader(ResponseEntity.ok("new"))).block().getBody(), path);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_whenDisabled_thenAlwaysLoaded() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(false);
+        cache = new ResponseCache(properties, registry);
+
+        cache.get("/items/1", 1L, loader(ResponseEntity.ok("item"))).block();
+        cache.get("/items/1", 1L, loader(ResponseEntity.ok("item"))).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<Mono<ResponseEntity<Object>>> loader(ResponseEntity<Object> response) {
+        return () -> {
+            loads.incrementAndGet();
+            return Mono.just(response);
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WebClientConfigTest {
+
+    private final WebClientConfig config = new WebClientConfig();
+    private final HttpClientProperties properties = new HttpClientProperties();
+
+    private ConnectionProvider connectionProvider;
+    private HttpServer server;
+
+    @BeforeEach
+    void before() throws IOException {
+        connectionProvider = config.shareitServerConnectionProvider(properties);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.start();
+    }
+
+    @AfterEach
+    void after() {
+        server.stop(0);
+        connectionProvider.dispose();
+    }
+
+    @Test
+    void reactiveServerTransportFactory_whenResponseAboveCodecDefault_thenBodyRelayed() {
+        // WebFlux buffers at most 256KB by default
+        byte[] body = new byte[1024 * 1024];
+        Arrays.fill(body, (byte) 'a');
+        server.createContext("/items", exchange -> {
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        ServerTransport transport = config.reactiveServerTransportFactory(WebClient.builder(),
+                        config.shareitServerConnector(connectionProvider, properties), properties)
+                .create("http://localhost:" + server.getAddress().getPort());
+
+        ResponseEntity<Object> response = new BaseClient(transport).get("/items", 1L).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(body, (byte[]) response.getBody());
+    }
+}
@@ -7,18 +7,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.AsyncMockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -27,6 +34,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -53,9 +61,9 @@ class ItemControllerTest {
 
     @Test
     void getItemById_whenValidId_thenStatusOkAndReturnItem() throws Exception {
-        when(itemClient.getItem(anyLong(), anyLong())).thenReturn(ResponseEntity.ok(itemDto));
+        when(itemClient.getItem(anyLong(), anyLong(), any())).thenReturn(Mono.just(ResponseEntity.ok(itemDto)));
 
-        MvcResult result = mockMvc.perform(get("/items/1")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, get("/items/1")
                         .header("X-Sharer-User-Id", "1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -66,21 +74,65 @@ class ItemControllerTest {
         assertEquals(body, responseBody);
     }
 
+    @Test
+    void getItemById_whenIfNoneMatch_thenForwardedAndNotModifiedRelayed() throws Exception {
+        when(itemClient.getItem(1L, 1L, "W/\"1a\""))
+                .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("W/\"1a\"").build()));
+
+        MvcResult result = AsyncMockMvc.perform(mockMvc, get("/items/1")
+                        .header("X-Sharer-User-Id", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"1a\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a\""))
+                .andReturn();
+
+        assertEquals("", result.getResponse().getContentAsString());
+    }
+
     @Test
     void getItemByI_whenInvalidId_thenStatusNotFound() throws Exception {
-        when(itemClient.getItem(anyLong(), anyLong())).thenReturn(ResponseEntity.notFound().build());
+        when(itemClient.getItem(anyLong(), anyLong(), any()))
+                .thenReturn(Mono.just(ResponseEntity.notFound().build()));
 
-        mockMvc.perform(get("/items/2")
+        AsyncMockMvc.perform(mockMvc, get("/items/2")
                         .header("X-Sharer-User-Id", "1"))
                 .andExpect(status().isNotFound())
                 .andReturn();
     }
 
+    @Test
+    void getAvailability_whenValidPeriod_thenForwardedToClient() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(itemClient.getAvailability(1L, 1L, from, to))
+                .thenReturn(Mono.just(ResponseEntity.ok("{\"itemId\":1}")));
+
+        AsyncMockMvc.perform(mockMvc, get("/items/1/availability")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        verify(itemClient).getAvailability(1L, 1L, from, to);
+    }
+
+    @Test
+    void getAvailability_whenEndBeforeStart_thenStatusBadRequest() throws Exception {
+        mockMvc.perform(get("/items/1/availability")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("from", "2030-01-03T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getAvailability(anyLong(), anyLong(), any(), any());
+    }
+
     @Test
     void getItemsByUserId_whenUserIdFound_thenStatusOkAndReturnListItems() throws Exception {
-        when(itemClient.getItems(anyLong())).thenReturn(ResponseEntity.ok(List.of(itemDto)));
+        when(itemClient.getItems(anyLong())).thenReturn(Mono.just(ResponseEntity.ok(List.of(itemDto))));
 
-        MvcResult result = mockMvc.perform(get("/items")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, get("/items")
                         .header("X-Sharer-User-Id", "1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -93,9 +145,10 @@ class ItemControllerTest {
 
     @Test
     void getItemsByText_whenFoundText_thenStatusOkAndReturnListItem() throws Exception {
-        when(itemClient.getItemsByText(anyLong(), any(String.class))).thenReturn(ResponseEntity.ok(List.of(itemDto)));
+        when(itemClient.getItemsByText(anyLong(), any(String.class), any(), any(), anyInt(), anyInt()))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(itemDto))));
 
-        MvcResult result = mockMvc.perform(get("/items/search")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, get("/items/search")
                         .header("X-Sharer-User-Id", "1")
                         .param("text", "description"))
                 .andExpect(status().isOk())
@@ -107,11 +160,40 @@ class ItemControllerTest {
         assertEquals(body, responseBody);
     }
 
+    @Test
+    void getItemsByText_whenPeriodGiven_thenForwardedToClient() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 5, 10, 0);
+        LocalDateTime end = start.plusDays(2);
+        when(itemClient.getItemsByText(1L, "drill", start, end, 0, 10))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(itemDto))));
+
+        AsyncMockMvc.perform(mockMvc, get("/items/search")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("text", "drill")
+                        .param("start", "2030-01-05T10:00:00")
+                        .param("end", "2030-01-07T10:00:00"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        verify(itemClient).getItemsByText(1L, "drill", start, end, 0, 10);
+    }
+
+    @Test
+    void getItemsByText_whenOnlyStartGiven_thenStatusBadRequest() throws Exception {
+        mockMvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("text", "drill")
+                        .param("start", "2030-01-05T10:00:00"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getItemsByText(anyLong(), any(), any(), any(), anyInt(), anyInt());
+    }
+
     @Test
     void create_whenValidRequest_thenStatusOkAndReturnItem() throws Exception {
-        when(itemClient.create(anyLong(), any(ItemDto.class))).thenReturn(ResponseEntity.ok(itemDto));
+        when(itemClient.create(anyLong(), any(ItemDto.class))).thenReturn(Mono.just(ResponseEntity.ok(itemDto)));
 
-        MvcResult result = mockMvc.perform(post("/items")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, post("/items")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(itemDto)))
@@ -124,13 +206,27 @@ class ItemControllerTest {
         assertEquals(body, responseBody);
     }
 
+    @Test
+    void importItems_whenNdjson_thenStreamedToClient() throws Exception {
+        when(itemClient.importItems(anyLong(), any(InputStream.class)))
+                .thenReturn(Mono.just(ResponseEntity.ok("{\"imported\":1,\"errors\":[]}")));
+
+        AsyncMockMvc.perform(mockMvc, post("/items/batch")
+                        .header("X-Sharer-User-Id", "1")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(itemDto) + "\n"))
+                .andExpect(status().isOk())
+                .andReturn();
+        verify(itemClient).importItems(anyLong(), any(InputStream.class));
+    }
+
     @Test
     void create_whenInvalidItem_thenReturnStatusBadRequest() throws Exception {
         when(itemClient.update(anyLong(), anyLong(), any(ItemDto.class)))
-                .thenReturn(ResponseEntity.badRequest().build());
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
         itemDto = new ItemDto(2L, "", "description", true, 2L);
 
-        mockMvc.perform(post("/items")
+        AsyncMockMvc.perform(mockMvc, post("/items")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(itemDto)))
@@ -142,9 +238,10 @@ class ItemControllerTest {
 
     @Test
     void update_whenValidRequest_thenStatusOkAndReturnItem() throws Exception {
-        when(itemClient.update(anyLong(), anyLong(), any(ItemDto.class))).thenReturn(ResponseEntity.ok(itemDto));
+        when(itemClient.update(anyLong(), anyLong(), any(ItemDto.class)))
+                .thenReturn(Mono.just(ResponseEntity.ok(itemDto)));
 
-        MvcResult result = mockMvc.perform(patch("/items/1")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, patch("/items/1")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(itemDto)))
@@ -159,9 +256,9 @@ class ItemControllerTest {
     @Test
     void update_whenInvalidItemId_thenStatusNotFound() throws Exception {
         when(itemClient.update(anyLong(), anyLong(), any(ItemDto.class)))
-                .thenReturn(ResponseEntity.notFound().build());
+                .thenReturn(Mono.just(ResponseEntity.notFound().build()));
 
-        mockMvc.perform(patch("/items/2")
+        AsyncMockMvc.perform(mockMvc, patch("/items/2")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(itemDto)))
@@ -174,9 +271,9 @@ class ItemControllerTest {
     void update_whenInvalidItem_thenStatusBadRequest() throws Exception {
         itemDto = new ItemDto(1L, "", "description", false, 1L);
         when(itemClient.update(anyLong(), anyLong(), any(ItemDto.class)))
-                .thenReturn(ResponseEntity.badRequest().build());
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
 
-        mockMvc.perform(patch("/items/1")
+        AsyncMockMvc.perform(mockMvc, patch("/items/1")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(itemDto)))
@@ -187,9 +284,9 @@ class ItemControllerTest {
     @Test
     void addComment_whenValidComment_thenStatusOkAndReturnComment() throws Exception {
         when(itemClient.addComment(anyLong(), anyLong(), any(CommentDto.class)))
-                .thenReturn(ResponseEntity.ok(commentDto));
+                .thenReturn(Mono.just(ResponseEntity.ok(commentDto)));
 
-        MvcResult result = mockMvc.perform(post("/items/1/comment")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, post("/items/1/comment")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(commentDto)))
@@ -204,9 +301,9 @@ class ItemControllerTest {
     @Test
     void addComment_whenInvalidItemId_thenStatusNotFound() throws Exception {
         when(itemClient.addComment(anyLong(), anyLong(), any(CommentDto.class)))
-                .thenReturn(ResponseEntity.notFound().build());
+                .thenReturn(Mono.just(ResponseEntity.notFound().build()));
 
-        mockMvc.perform(post("/items/2/comment")
+        AsyncMockMvc.perform(mockMvc, post("/items/2/comment")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(commentDto)))
@@ -219,9 +316,9 @@ class ItemControllerTest {
     void addComment_whenInvalidComment_thenStatusBadRequest() throws Exception {
         commentDto = new CommentDto(1L, "");
         when(itemClient.addComment(anyLong(), anyLong(), any(CommentDto.class)))
-                .thenReturn(ResponseEntity.badRequest().build());
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
 
-        mockMvc.perform(post("/items/1/comment")
+        AsyncMockMvc.perform(mockMvc, post("/items/1/comment")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(commentDto)))
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemImportStreamTest {
+
+    private static final String VALID = "{\"name\":\"drill\",\"description\":\"cordless\",\"available\":true}";
+
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+
+    @AfterEach
+    void after() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void read_whenInvalidLines_thenBlankedOutAndReportedWithLineNumbers() throws IOException {
+        String payload = VALID + "\n"
+                + "{\"name\":\n"
+                + "\n"
+                + "{\"name\":\" \",\"description\":\"cordless\"}\n"
+                + VALID;
+        ItemImportStream stream = new ItemImportStream(
+                new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)), new ObjectMapper(),
+                validatorFactory.getValidator());
+
+        String forwarded = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+
+        assertEquals(VALID + "\n\n\n\n" + VALID + "\n", forwarded);
+        List<ItemImportErrorDto> errors = stream.getErrors();
+        assertEquals(List.of(2L, 4L), errors.stream().map(ItemImportErrorDto::getLine).toList());
+        assertEquals("available: must not be null; name: must not be blank", errors.get(1).getMessage());
+    }
+}
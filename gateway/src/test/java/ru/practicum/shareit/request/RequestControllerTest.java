@@ -12,6 +12,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.AsyncMockMvc;
 import ru.practicum.shareit.request.dto.RequestDto;
 
 import java.util.List;
@@ -50,9 +52,10 @@ class RequestControllerTest {
 
     @Test
     void create_whenValidRequest_thenStatusOkAndReturnRequest() throws Exception {
-        when(requestClient.create(anyLong(), any(RequestDto.class))).thenReturn(ResponseEntity.ok(requestDto));
+        when(requestClient.create(anyLong(), any(RequestDto.class)))
+                .thenReturn(Mono.just(ResponseEntity.ok(requestDto)));
 
-        MvcResult result = mockMvc.perform(post("/requests")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, post("/requests")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestDto)))
@@ -67,9 +70,10 @@ class RequestControllerTest {
     @Test
     void create_whenInvalidRequest_thenStatusBadRequest() throws Exception {
         requestDto = new RequestDto(1L, "");
-        when(requestClient.create(anyLong(), any(RequestDto.class))).thenReturn(ResponseEntity.ok(requestDto));
+        when(requestClient.create(anyLong(), any(RequestDto.class)))
+                .thenReturn(Mono.just(ResponseEntity.ok(requestDto)));
 
-        mockMvc.perform(post("/requests")
+        AsyncMockMvc.perform(mockMvc, post("/requests")
                         .header("X-Sharer-User-Id", "1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestDto)))
@@ -80,9 +84,10 @@ class RequestControllerTest {
 
     @Test
     void getAllItemRequestByUserId_whenInvoked_thenStatusOkAndReturnListRequests() throws Exception {
-        when(requestClient.getRequestsByUserId(anyLong())).thenReturn(ResponseEntity.ok(List.of(requestDto)));
+        when(requestClient.getRequestsByUserId(anyLong()))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(requestDto))));
 
-        MvcResult result = mockMvc.perform(get("/requests")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, get("/requests")
                         .header("X-Sharer-User-Id", "1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -95,9 +100,9 @@ class RequestControllerTest {
     @Test
     void getAllItemRequestExceptUserId_whenUserIdValid_thenStatusOkAndReturnListEmpty() throws Exception {
         when(requestClient.getRequestsExceptUserId(anyLong(), anyInt(), anyInt()))
-                .thenReturn(ResponseEntity.ok(List.of()));
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of())));
 
-        MvcResult result = mockMvc.perform(get("/requests/all")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, get("/requests/all")
                         .header("X-Sharer-User-Id", "1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -110,9 +115,9 @@ class RequestControllerTest {
     @Test
     void getAllItemRequestExceptUserId_whenSizeNegative_thenStatusBadRequest() throws Exception {
         when(requestClient.getRequestsExceptUserId(anyLong(), anyInt(), anyInt()))
-                .thenReturn(ResponseEntity.badRequest().build());
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
 
-        mockMvc.perform(get("/requests/all")
+        AsyncMockMvc.perform(mockMvc, get("/requests/all")
                         .header("X-Sharer-User-Id", "1")
                         .param("size", "-1")
                 )
@@ -125,9 +130,9 @@ class RequestControllerTest {
     @Test
     void getAllItemRequestExceptUserId_whenFromNegative_thenStatusBadRequest() throws Exception {
         when(requestClient.getRequestsExceptUserId(anyLong(), anyInt(), anyInt()))
-                .thenReturn(ResponseEntity.badRequest().build());
+                .thenReturn(Mono.just(ResponseEntity.badRequest().build()));
 
-        mockMvc.perform(get("/requests/all")
+        AsyncMockMvc.perform(mockMvc, get("/requests/all")
                         .header("X-Sharer-User-Id", "1")
                         .param("from", "-1")
                 )
@@ -139,9 +144,9 @@ class RequestControllerTest {
 
     @Test
     void getById_whenUserIdValid_thenStatusOkAndReturnRequest() throws Exception {
-        when(requestClient.getRequestById(anyLong(), anyLong())).thenReturn(ResponseEntity.ok(requestDto));
+        when(requestClient.getRequestById(anyLong(), anyLong())).thenReturn(Mono.just(ResponseEntity.ok(requestDto)));
 
-        MvcResult result = mockMvc.perform(get("/requests/1")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, get("/requests/1")
                         .header("X-Sharer-User-Id", "1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -153,9 +158,10 @@ class RequestControllerTest {
 
     @Test
     void getById_whenInvalidId_thenStatusNotFound() throws Exception {
-        when(requestClient.getRequestById(anyLong(), anyLong())).thenReturn(ResponseEntity.notFound().build());
+        when(requestClient.getRequestById(anyLong(), anyLong()))
+                .thenReturn(Mono.just(ResponseEntity.notFound().build()));
 
-        mockMvc.perform(get("/requests/2")
+        AsyncMockMvc.perform(mockMvc, get("/requests/2")
                         .header("X-Sharer-User-Id", "1"))
                 .andExpect(status().isNotFound())
                 .andReturn();
@@ -10,6 +10,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.AsyncMockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -17,7 +19,6 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -49,9 +50,9 @@ class UserControllerTest {
 
     @Test
     void getById_whenUserFound_thenStatusOkAndReturnUser() throws Exception {
-        when(userClient.getUserById(1L)).thenReturn(ResponseEntity.ok(userDto));
+        when(userClient.getUserById(1L)).thenReturn(Mono.just(ResponseEntity.ok(userDto)));
 
-        MvcResult result = mockMvc.perform(get("/users/1"))
+        MvcResult result = AsyncMockMvc.perform(mockMvc, get("/users/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
@@ -62,9 +63,9 @@ class UserControllerTest {
 
     @Test
     void getById_InvalidId_thenStatusNotFound() throws Exception {
-        when(userClient.getUserById(2L)).thenReturn(ResponseEntity.notFound().build());
+        when(userClient.getUserById(2L)).thenReturn(Mono.just(ResponseEntity.notFound().build()));
 
-        MvcResult result = mockMvc.perform(get("/users/2"))
+        MvcResult result = AsyncMockMvc.perform(mockMvc, get("/users/2"))
                 .andExpect(status().isNotFound())
                 .andReturn();
 
@@ -74,9 +75,9 @@ class UserControllerTest {
 
     @Test
     void getAll_whenInvoked_thenStatusOkAndReturnListUserDto() throws Exception {
-        when(userClient.getAllUser()).thenReturn(ResponseEntity.ok(List.of(userDto)));
+        when(userClient.getAllUser()).thenReturn(Mono.just(ResponseEntity.ok(List.of(userDto))));
 
-        MvcResult result = mockMvc.perform(get("/users"))
+        MvcResult result = AsyncMockMvc.perform(mockMvc, get("/users"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
@@ -87,9 +88,9 @@ class UserControllerTest {
 
     @Test
     void create_whenUserValid_thenStatusOkAndReturnUserDto() throws Exception {
-        when(userClient.create(any(UserDto.class))).thenReturn(ResponseEntity.ok(userDto));
+        when(userClient.create(any(UserDto.class))).thenReturn(Mono.just(ResponseEntity.ok(userDto)));
 
-        MvcResult result = mockMvc.perform(post("/users")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(userDto)))
                 .andExpect(status().isOk())
@@ -103,9 +104,9 @@ class UserControllerTest {
     @Test
     void create_whenInvalidUser_thenStatusBadRequest() throws Exception {
         userDto = new UserDto(1L, "", "user@example.com");
-        when(userClient.create(any(UserDto.class))).thenReturn(ResponseEntity.ok(userDto));
+        when(userClient.create(any(UserDto.class))).thenReturn(Mono.just(ResponseEntity.ok(userDto)));
 
-        mockMvc.perform(post("/users")
+        AsyncMockMvc.perform(mockMvc, post("/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(userDto)))
                 .andExpect(status().isBadRequest())
@@ -115,9 +116,9 @@ class UserControllerTest {
 
     @Test
     void update_whenValidRequest_thenStatusOkAndReturnUser() throws Exception {
-        when(userClient.update(anyLong(), any(UserDto.class))).thenReturn(ResponseEntity.ok(userDto));
+        when(userClient.update(anyLong(), any(UserDto.class))).thenReturn(Mono.just(ResponseEntity.ok(userDto)));
 
-        MvcResult result = mockMvc.perform(patch("/users/1")
+        MvcResult result = AsyncMockMvc.perform(mockMvc, patch("/users/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(userDto)))
                 .andExpect(status().isOk())
@@ -130,9 +131,9 @@ class UserControllerTest {
 
     @Test
     void update_whenInvalidId_thenStatusNotFound() throws Exception {
-        when(userClient.update(anyLong(), any(UserDto.class))).thenReturn(ResponseEntity.notFound().build());
+        when(userClient.update(anyLong(), any(UserDto.class))).thenReturn(Mono.just(ResponseEntity.notFound().build()));
 
-        mockMvc.perform(patch("/users/2")
+        AsyncMockMvc.perform(mockMvc, patch("/users/2")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(userDto)))
                 .andExpect(status().isNotFound())
@@ -141,9 +142,9 @@ class UserControllerTest {
 
     @Test
     void deleteById_whenInvoked_thenStatusOk() throws Exception {
-        doNothing().when(userClient).delete(anyLong());
+        when(userClient.delete(anyLong())).thenReturn(Mono.just(ResponseEntity.ok().build()));
 
-        MvcResult result = mockMvc.perform(delete("/users/1"))
+        MvcResult result = AsyncMockMvc.perform(mockMvc, delete("/users/1"))
                 .andExpect(status().isOk())
                 .andReturn();
 
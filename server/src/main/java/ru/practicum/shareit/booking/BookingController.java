@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -11,22 +13,31 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingStatusRequestDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping("/bookings")
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService service;
+    private final ObjectMapper objectMapper;
 
-    public BookingController(BookingService service) {
+    public BookingController(BookingService service, ObjectMapper objectMapper) {
         this.service = service;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -44,26 +55,52 @@ public class BookingController {
         return BookingMapper.toBookingDto(service.changeStatus(userId, bookingId, approved));
     }
 
+    @PatchMapping
+    public List<BookingStatusResultDto> changeStatuses(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @Validated @RequestBody BookingStatusRequestDto dto) {
+        log.info("PATCH bookings: changeStatuses of {} bookings, approved - {}, by user - {}",
+                dto.getBookingIds().size(), dto.getApproved(), userId);
+        return service.changeStatuses(userId, dto);
+    }
+
     @GetMapping("/{bookingId}")
-    public BookingDto getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long bookingId) {
+    public ResponseEntity<byte[]> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @PathVariable Long bookingId) {
         log.info("GET bookings/id: getBookingById - {}, by userId - {}", bookingId, userId);
-        return BookingMapper.toBookingDto(service.getBookingById(userId, bookingId));
+        return ETags.ok(objectMapper, BookingMapper.toBookingDto(service.getBookingById(userId, bookingId)));
     }
 
     @GetMapping
-    public Collection<BookingDto> getAllBookingsByUserId(
+    public ResponseEntity<Collection<BookingListDto>> getAllBookingsByUserId(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @RequestParam(defaultValue = "ALL") String state) {
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size) {
         log.info("GET bookings/id?state: getAllBookingsByUserId state - {}, by userId - {}", state, userId);
-        return BookingMapper.toBookingDto(service.getAllBookingsByUserId(userId, state));
+        return withNextCursor(service.getAllBookingsByUserId(userId, state, BookingCursor.decode(cursor), from, size),
+                size);
     }
 
-
     @GetMapping("/owner")
-    public Collection<BookingDto> getBookingsAllItemsByUserId(
+    public ResponseEntity<Collection<BookingListDto>> getBookingsAllItemsByUserId(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @RequestParam(defaultValue = "ALL") String state) {
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size) {
         log.info("GET bookings/owner/id?state: getBookingsAllItemsByUserId state - {}, by userId - {}", state, userId);
-        return BookingMapper.toBookingDto(service.getBookingsForAllItemsByUserId(userId, state));
+        return withNextCursor(
+                service.getBookingsForAllItemsByUserId(userId, state, BookingCursor.decode(cursor), from, size),
+                size);
+    }
+
+    private static ResponseEntity<Collection<BookingListDto>> withNextCursor(List<BookingListDto> bookings,
+                                                                             int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.after(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings);
     }
 }
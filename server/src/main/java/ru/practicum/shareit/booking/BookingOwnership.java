@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Just enough of a booking to decide whether its item owner may approve or reject it, and to report the change.
+ */
+public interface BookingOwnership {
+
+    Long getId();
+
+    Long getItemId();
+
+    Long getOwnerId();
+
+    Long getBookerId();
+
+    StatusBooking getStatus();
+}
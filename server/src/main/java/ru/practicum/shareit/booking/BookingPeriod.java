@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * The time a booking holds its item, {@code end} exclusive.
+ */
+public interface BookingPeriod {
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
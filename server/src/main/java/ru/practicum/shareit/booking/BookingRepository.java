@@ -1,66 +1,107 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id = :bookerId")
-    Optional<Booking> findByIdFetchItemAndFetchUser(Long bookerId);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
-            "WHERE b.booker.id = :bookerId ORDER BY b.start DESC")
-    List<Booking> findAllByIdFetchItemAndFetchUser(Long bookerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.booker.id = :bookerId AND b.start <= :time AND b.end >= :time ORDER BY b.start DESC")
-    List<Booking> findAllBookingByCurrentDate(Long bookerId, LocalDateTime time);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
-            "WHERE b.booker.id = :bookerId AND b.end <= :time ORDER BY b.start DESC")
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime time);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
-            "WHERE b.booker.id = :bookerId AND b.start >= :time ORDER BY b.start DESC")
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime time);
+    String AFTER_CURSOR = " AND (b.start < :#{#cursor.start} " +
+            "OR (b.start = :#{#cursor.start} AND b.id < :#{#cursor.id}))";
 
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
-            "WHERE b.booker.id = :bookerId AND b.status = :status ORDER BY b.start DESC")
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, StatusBooking status);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
-            "WHERE b.booker.id = :ownerId ORDER BY b.start DESC")
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId);
+    String ORDER_BY_START_DESC = " ORDER BY b.start DESC, b.id DESC";
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = :ownerId AND b.start <= :time AND b.end >= :time ORDER BY b.start DESC")
-    List<Booking> findAllByBookingItemsCurrentDate(Long ownerId, LocalDateTime time);
+    String SELECT_LIST_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingListDto(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) FROM Booking b JOIN b.item i JOIN b.booker u ";
 
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
-            "WHERE b.item.owner.id = :ownerId AND b.end <= :time ORDER BY b.start DESC")
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime time);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
-            "WHERE b.item.owner.id = :ownerId AND b.start >= :time ORDER BY b.start DESC")
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime time);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
-            "WHERE b.item.owner.id = :ownerId AND b.status = :status ORDER BY b.start DESC")
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, StatusBooking status);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
-            "WHERE b.item.owner.id = :ownerId AND b.end < :time ORDER BY b.start DESC")
-    Optional<Booking> findFirstByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime time);
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id = :bookerId")
+    Optional<Booking> findByIdFetchItemAndFetchUser(Long bookerId);
 
-    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
-            "WHERE b.item.id = :ownerId AND b.start > :time ORDER BY b.start DESC")
-    Optional<Booking> findFirstByItemOwnerIdAndStartAfterOrderByStart(Long ownerId, LocalDateTime time);
+    @Query(SELECT_LIST_DTO +
+            "WHERE b.booker.id = :bookerId" + AFTER_CURSOR + ORDER_BY_START_DESC)
+    List<BookingListDto> findAllByBookerId(Long bookerId, BookingCursor cursor, Pageable page);
+
+    @Query(SELECT_LIST_DTO +
+            "WHERE b.booker.id = :bookerId AND b.start <= :time AND b.end >= :time" + AFTER_CURSOR +
+            ORDER_BY_START_DESC)
+    List<BookingListDto> findAllBookingByCurrentDate(Long bookerId, LocalDateTime time, BookingCursor cursor,
+                                                     Pageable page);
+
+    @Query(SELECT_LIST_DTO +
+            "WHERE b.booker.id = :bookerId AND b.end <= :time" + AFTER_CURSOR + ORDER_BY_START_DESC)
+    List<BookingListDto> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime time,
+                                                                       BookingCursor cursor, Pageable page);
+
+    @Query(SELECT_LIST_DTO +
+            "WHERE b.booker.id = :bookerId AND b.start >= :time" + AFTER_CURSOR + ORDER_BY_START_DESC)
+    List<BookingListDto> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime time,
+                                                                        BookingCursor cursor, Pageable page);
+
+    @Query(SELECT_LIST_DTO +
+            "WHERE b.booker.id = :bookerId AND b.status = :status" + AFTER_CURSOR + ORDER_BY_START_DESC)
+    List<BookingListDto> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, StatusBooking status,
+                                                                    BookingCursor cursor, Pageable page);
+
+    @Query(SELECT_LIST_DTO +
+            "WHERE b.item.owner.id = :ownerId" + AFTER_CURSOR + ORDER_BY_START_DESC)
+    List<BookingListDto> findAllByItemOwnerIdOrderByStartDesc(Long ownerId, BookingCursor cursor, Pageable page);
+
+    @Query(SELECT_LIST_DTO +
+            "WHERE b.item.owner.id = :ownerId AND b.start <= :time AND b.end >= :time" + AFTER_CURSOR +
+            ORDER_BY_START_DESC)
+    List<BookingListDto> findAllByBookingItemsCurrentDate(Long ownerId, LocalDateTime time, BookingCursor cursor,
+                                                          Pageable page);
+
+    @Query(SELECT_LIST_DTO +
+            "WHERE b.item.owner.id = :ownerId AND b.end <= :time" + AFTER_CURSOR + ORDER_BY_START_DESC)
+    List<BookingListDto> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime time,
+                                                                          BookingCursor cursor, Pageable page);
+
+    @Query(SELECT_LIST_DTO +
+            "WHERE b.item.owner.id = :ownerId AND b.start >= :time" + AFTER_CURSOR + ORDER_BY_START_DESC)
+    List<BookingListDto> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime time,
+                                                                           BookingCursor cursor, Pageable page);
+
+    @Query(SELECT_LIST_DTO +
+            "WHERE b.item.owner.id = :ownerId AND b.status = :status" + AFTER_CURSOR + ORDER_BY_START_DESC)
+    List<BookingListDto> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, StatusBooking status,
+                                                                       BookingCursor cursor, Pageable page);
 
     @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
             "WHERE b.item.id = :itemId AND b.booker.id = :bookerId AND b.end < :time ORDER BY b.start DESC")
     Optional<Booking> findByItemIdAndBookerIdAndEndBefore(Long itemId, Long bookerId, LocalDateTime time);
+
+    @Query(SELECT_LIST_DTO + "WHERE b.id IN :ids")
+    List<BookingListDto> findListDtosByIdIn(Collection<Long> ids);
+
+    /**
+     * Moves the booking to {@code status} only if it is still in {@code expected}, so of two concurrent transitions
+     * exactly one takes effect. Clears the persistence context, previously loaded bookings are stale afterwards.
+     *
+     * @return 1 when the transition was applied, 0 when the booking had already left {@code expected}
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.status = :expected")
+    int updateStatus(long id, StatusBooking expected, StatusBooking status);
+
+    @Query("SELECT b.id AS id, b.item.id AS itemId, b.item.owner.id AS ownerId, b.booker.id AS bookerId, " +
+            "b.status AS status FROM Booking b WHERE b.id IN :ids")
+    List<BookingOwnership> findOwnershipByIdIn(Collection<Long> ids);
+
+    /**
+     * Periods in which the item cannot be booked again, the same WAITING and APPROVED bookings the conditional insert
+     * checks for overlaps.
+     */
+    @Query("SELECT b.start AS start, b.end AS end FROM Booking b WHERE b.item.id = :itemId " +
+            "AND b.status IN (ru.practicum.shareit.booking.StatusBooking.WAITING, " +
+            "ru.practicum.shareit.booking.StatusBooking.APPROVED) ORDER BY b.start")
+    List<BookingPeriod> findBlockingPeriodsByItemId(long itemId);
 }
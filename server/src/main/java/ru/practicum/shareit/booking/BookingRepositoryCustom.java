@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Inserts a {@link StatusBooking#WAITING} booking in a single statement, provided the booker and the item exist,
+     * the item is available and no waiting or approved booking of it overlaps {@code [start, end)}.
+     *
+     * @return the inserted booking with its item, the item owner and the booker, all read by the same statement;
+     * empty when any of the conditions does not hold
+     */
+    Optional<Booking> insertIfAvailable(long bookerId, long itemId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Batched form of {@link BookingRepository#updateStatus}: one conditional update per id, sent to the database
+     * in a single round trip. Bypasses the persistence context, bookings loaded earlier are stale afterwards.
+     *
+     * @return per id, in the order given, 1 when the transition was applied and 0 when the booking had already left
+     * {@code expected}
+     */
+    int[] updateStatuses(List<Long> ids, StatusBooking expected, StatusBooking status);
+}
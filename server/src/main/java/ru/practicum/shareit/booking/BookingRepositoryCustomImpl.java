@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    // on PostgreSQL the bookings_no_overlap_ex exclusion constraint settles inserts racing past NOT EXISTS
+    private static final String INSERT_IF_AVAILABLE = "INSERT INTO bookings (start_date, end_date, item_id, " +
+            "booker_id, status) " +
+            "SELECT :start, :end, i.id, u.id, :status FROM items i, users u " +
+            "WHERE i.id = :itemId AND u.id = :bookerId AND i.is_available " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id " +
+            "AND b.status IN ('WAITING', 'APPROVED') AND b.start_date < :end AND b.end_date > :start)";
+
+    // reads back the booking with the item, its owner and the booker within the inserting statement
+    private static final String SELECT_INSERTED = "SELECT b.id, b.start_date, b.end_date, b.status, b.version, " +
+            "i.id AS item_id, i.name AS item_name, i.description AS item_description, i.is_available, " +
+            "i.request_id, i.version AS item_version, " +
+            "o.id AS owner_id, o.name AS owner_name, o.email AS owner_email, " +
+            "u.id AS booker_id, u.name AS booker_name, u.email AS booker_email " +
+            "FROM %s b JOIN items i ON i.id = b.item_id JOIN users o ON o.id = i.owner_id " +
+            "JOIN users u ON u.id = b.booker_id";
+
+    // PostgreSQL reads the inserted row from a data-modifying CTE, H2 has no such CTE but a data change delta table
+    private static final String POSTGRESQL_INSERT_IF_AVAILABLE = "WITH inserted AS (" + INSERT_IF_AVAILABLE +
+            " RETURNING *) " + SELECT_INSERTED.formatted("inserted");
+    private static final String H2_INSERT_IF_AVAILABLE =
+            SELECT_INSERTED.formatted("FINAL TABLE (" + INSERT_IF_AVAILABLE + ")");
+
+    private static final String UPDATE_STATUS = "UPDATE bookings SET status = :status, version = version + 1 " +
+            "WHERE id = :id AND status = :expected";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final String insertIfAvailable;
+
+    BookingRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate) throws MetaDataAccessException {
+        this.jdbcTemplate = jdbcTemplate;
+        String database = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getJdbcTemplate().getDataSource(),
+                DatabaseMetaData::getDatabaseProductName);
+        this.insertIfAvailable = "PostgreSQL".equals(database) ? POSTGRESQL_INSERT_IF_AVAILABLE
+                : H2_INSERT_IF_AVAILABLE;
+    }
+
+    @Override
+    public Optional<Booking> insertIfAvailable(long bookerId, long itemId, LocalDateTime start,
+                                               LocalDateTime end) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("bookerId", bookerId)
+                .addValue("itemId", itemId)
+                .addValue("start", start)
+                .addValue("end", end)
+                .addValue("status", StatusBooking.WAITING.name());
+        return jdbcTemplate.query(insertIfAvailable, parameters, (rs, rowNum) -> toBooking(rs)).stream()
+                .findFirst();
+    }
+
+    @Override
+    public int[] updateStatuses(List<Long> ids, StatusBooking expected, StatusBooking status) {
+        SqlParameterSource[] batch = ids.stream()
+                .map(id -> new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("expected", expected.name())
+                        .addValue("status", status.name()))
+                .toArray(SqlParameterSource[]::new);
+        return jdbcTemplate.batchUpdate(UPDATE_STATUS, batch);
+    }
+
+    private static Booking toBooking(ResultSet rs) throws SQLException {
+        Item item = Item.builder()
+                .id(rs.getLong("item_id"))
+                .name(rs.getString("item_name"))
+                .description(rs.getString("item_description"))
+                .available(rs.getBoolean("is_available"))
+                .owner(new User(rs.getLong("owner_id"), rs.getString("owner_name"), rs.getString("owner_email")))
+                .requestId(rs.getObject("request_id", Long.class))
+                .version(rs.getLong("item_version"))
+                .build();
+        return Booking.builder()
+                .id(rs.getLong("id"))
+                .start(rs.getObject("start_date", LocalDateTime.class))
+                .end(rs.getObject("end_date", LocalDateTime.class))
+                .item(item)
+                .booker(new User(rs.getLong("booker_id"), rs.getString("booker_name"), rs.getString("booker_email")))
+                .status(StatusBooking.valueOf(rs.getString("status")))
+                .version(rs.getLong("version"))
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.BookingPeriod;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto.Period;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Busy periods of one item as two parallel arrays of epoch microseconds, the precision of a booking timestamp.
+ * Overlapping and touching periods are merged on load, so both arrays are strictly ascending and a window is found
+ * with one binary search over the ends.
+ */
+final class BookedIntervals {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    private final long[] starts;
+    private final long[] ends;
+
+    private BookedIntervals(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * @param periods ordered by start
+     */
+    static BookedIntervals of(List<BookingPeriod> periods) {
+        long[] starts = new long[periods.size()];
+        long[] ends = new long[periods.size()];
+        int count = 0;
+        for (BookingPeriod period : periods) {
+            long start = toMicros(period.getStart());
+            long end = toMicros(period.getEnd());
+            if (end <= start) {
+                continue;
+            }
+            if (count > 0 && start <= ends[count - 1]) {
+                ends[count - 1] = Math.max(ends[count - 1], end);
+            } else {
+                starts[count] = start;
+                ends[count] = end;
+                count++;
+            }
+        }
+        return new BookedIntervals(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+    }
+
+    ItemAvailabilityDto availability(long itemId, LocalDateTime from, LocalDateTime to) {
+        long windowStart = toMicros(from);
+        long windowEnd = toMicros(to);
+        List<Period> busy = new ArrayList<>();
+        List<Period> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (int i = firstEndingAfter(windowStart); i < starts.length && starts[i] < windowEnd; i++) {
+            LocalDateTime start = starts[i] <= windowStart ? from : toDateTime(starts[i]);
+            LocalDateTime end = ends[i] >= windowEnd ? to : toDateTime(ends[i]);
+            if (freeFrom.isBefore(start)) {
+                free.add(new Period(freeFrom, start));
+            }
+            busy.add(new Period(start, end));
+            freeFrom = end;
+        }
+        if (freeFrom.isBefore(to)) {
+            free.add(new Period(freeFrom, to));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, busy, free);
+    }
+
+    private int firstEndingAfter(long time) {
+        int found = Arrays.binarySearch(ends, time);
+        return found >= 0 ? found + 1 : -found - 1;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        Instant instant = time.toInstant(ZoneOffset.UTC);
+        return instant.getEpochSecond() * MICROS_PER_SECOND + instant.getNano() / 1_000;
+    }
+
+    private static LocalDateTime toDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Busy periods per item, loaded with one query the first time an item is asked for and kept until a booking write
+ * changes them. A calendar is dropped once the write commits rather than patched, the next read loads it again: an
+ * in-flight load of the same item finishes before the entry is removed, so no load can put back what a commit changed.
+ */
+@Component
+public class ItemAvailabilityCalendar {
+
+    private static final String METRIC = "shareit.server.item.availability";
+
+    private final BookingRepository repository;
+    private final Cache<Long, BookedIntervals> calendars;
+
+    public ItemAvailabilityCalendar(BookingRepository repository, MeterRegistry registry,
+                                    @Value("${shareit.availability.max-items:10000}") long maxItems,
+                                    @Value("${shareit.availability.ttl:PT10M}") Duration ttl) {
+        this.repository = repository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                // under memory pressure the collector may clear calendars before the size bound is reached
+                .softValues()
+                // bounds staleness for bookings written by another node
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, calendars, METRIC);
+    }
+
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        return calendars.get(itemId, this::load).availability(itemId, from, to);
+    }
+
+    /**
+     * Drops the calendars of the items once the current transaction commits, or at once outside a transaction.
+     */
+    public void invalidate(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = Set.copyOf(itemIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    calendars.invalidateAll(ids);
+                }
+            });
+        } else {
+            calendars.invalidateAll(ids);
+        }
+    }
+
+    private BookedIntervals load(Long itemId) {
+        return BookedIntervals.of(repository.findBlockingPeriodsByItemId(itemId));
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.StatusBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking as shown in a listing, selected column by column with a JPQL constructor expression: nothing of it is
+ * managed by the persistence context, and the item owner and user emails are never read.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingListDto {
+
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private StatusBooking status;
+    private ItemRef item;
+    private BookerRef booker;
+
+    public BookingListDto(Long id, LocalDateTime start, LocalDateTime end, StatusBooking status,
+                          Long itemId, String itemName, Long bookerId, String bookerName) {
+        this(id, start, end, status, new ItemRef(itemId, itemName), new BookerRef(bookerId, bookerName));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemRef {
+        private Long id;
+        private String name;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BookerRef {
+        private Long id;
+        private String name;
+    }
+}
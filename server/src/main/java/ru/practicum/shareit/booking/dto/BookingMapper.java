@@ -3,8 +3,6 @@ package ru.practicum.shareit.booking.dto;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.Booking;
 
-import java.util.Collection;
-
 @UtilityClass
 public class BookingMapper {
     public static BookingDto toBookingDto(Booking booking) {
@@ -21,13 +19,6 @@ public class BookingMapper {
         );
     }
 
-    public static Collection<BookingDto> toBookingDto(Collection<Booking> bookings) {
-        if (bookings == null) {
-            return null;
-        }
-        return bookings.stream().map(BookingMapper::toBookingDto).toList();
-    }
-
     public static Booking toBooking(BookingNewDto dto) {
         if (dto == null) {
             return null;
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.StatusBooking;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatusResultDto {
+
+    private Long bookingId;
+    private Result result;
+    /**
+     * Status after the request, absent for bookings the user may not see.
+     */
+    private StatusBooking status;
+
+    public enum Result {
+        UPDATED,
+        NOT_FOUND,
+        NOT_OWNER,
+        NOT_WAITING
+    }
+}
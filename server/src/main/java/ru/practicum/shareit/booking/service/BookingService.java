@@ -1,9 +1,18 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingStatusRequestDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
 
@@ -11,13 +20,22 @@ public interface BookingService {
 
     Booking changeStatus(Long userId, Long bookingId, Boolean status);
 
+    List<BookingStatusResultDto> changeStatuses(Long userId, BookingStatusRequestDto dto);
+
     Booking getBookingById(Long userId, Long bookingId);
 
-    List<Booking> getAllBookingsByUserId(Long userId, String state);
+    List<BookingListDto> getAllBookingsByUserId(Long userId, String state, BookingCursor cursor, int from, int size);
 
-    List<Booking> getBookingsForAllItemsByUserId(Long userId, String state);
+    List<BookingListDto> getBookingsForAllItemsByUserId(Long userId, String state, BookingCursor cursor,
+                                                        int from, int size);
 
-    Booking findLastBooking(Long userId);
+    /**
+     * Busy and free periods of the item between {@code from} inclusive and {@code to} exclusive.
+     */
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 
-    Booking findNextBooking(Long userId);
+    /**
+     * Last and next approved booking per item, items without either are absent from the map.
+     */
+    Map<Long, LastAndNextBookingDto> findLastAndNextBookings(Collection<Long> itemIds);
 }
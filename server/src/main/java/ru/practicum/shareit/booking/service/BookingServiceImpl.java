@@ -1,36 +1,91 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingOwnership;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.StatusBooking;
-import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCalendar;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingStatusRequestDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto.Result;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingDto;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.error.exeption.ConflictException;
 import ru.practicum.shareit.error.exeption.NotFoundException;
 import ru.practicum.shareit.error.exeption.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
+    public static final int MAX_STATUS_BATCH = 500;
+
+    private static final String CONFLICT_METRIC = "shareit.server.conflicts";
+    // PostgreSQL exclusion_violation
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository repository;
     private final UserRepository userService;
     private final ItemRepository itemService;
+    private final ItemBookingSummaryService summaryService;
+    private final ItemAvailabilityCalendar calendar;
+    private final Outbox outbox;
+    private final Counter overlapConflicts;
+    private final Counter statusConflicts;
 
-    public BookingServiceImpl(BookingRepository repository, UserRepository userService, ItemRepository itemService) {
+    public BookingServiceImpl(BookingRepository repository, UserRepository userService, ItemRepository itemService,
+                              ItemBookingSummaryService summaryService, ItemAvailabilityCalendar calendar,
+                              Outbox outbox, MeterRegistry registry) {
         this.repository = repository;
         this.userService = userService;
         this.itemService = itemService;
+        this.summaryService = summaryService;
+        this.calendar = calendar;
+        this.outbox = outbox;
+        this.overlapConflicts = Counter.builder(CONFLICT_METRIC)
+                .tag("entity", "booking")
+                .tag("reason", "overlap")
+                .description("Bookings refused because the item was already booked for the period")
+                .register(registry);
+        this.statusConflicts = Counter.builder(CONFLICT_METRIC)
+                .tag("entity", "booking")
+                .tag("reason", "status")
+                .description("Status changes refused because the booking had already left WAITING")
+                .register(registry);
     }
 
     @Override
@@ -40,25 +95,24 @@ public class BookingServiceImpl implements BookingService {
         if (dto.getItemId() == null) {
             throw new NotFoundException("Not item id.");
         }
-        User user = userService.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User by id: " + userId + " not found"));
-        Item item = itemService.findItemWithOwnerById(dto.getItemId())
-                .orElseThrow(() -> new NotFoundException("Item by id: " + dto.getItemId() + " not found"));
-
-        if (!item.getAvailable()) {
-            throw new ValidationException("Item by id - " + item.getId() + " not available.");
-        }
-
         if (dto.getStart().isAfter(dto.getEnd())) {
             throw new ValidationException("Start date is before end date.");
         }
-        Booking booking = BookingMapper.toBooking(dto);
-
-        booking.setItem(item);
-        booking.setBooker(user);
-        booking.setStatus(StatusBooking.WAITING);
-
-        return repository.save(booking);
+        Booking booking;
+        try {
+            booking = repository.insertIfAvailable(userId, dto.getItemId(), dto.getStart(), dto.getEnd())
+                    .orElseThrow(() -> rejection(userId, dto.getItemId()));
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlap(e)) {
+                throw e;
+            }
+            // the exclusion constraint caught an overlapping booking committed concurrently
+            throw overlapping(dto.getItemId());
+        }
+        calendar.invalidate(List.of(dto.getItemId()));
+        outbox.append(OutboxEventType.BOOKING_CREATED, booking.getId(),
+                new BookingEventDto(booking.getId(), dto.getItemId(), userId, StatusBooking.WAITING));
+        return booking;
     }
 
     @Override
@@ -67,12 +121,69 @@ public class BookingServiceImpl implements BookingService {
         log.info("changeStatus Booking - {}", status);
         Booking booking = repository.findByIdFetchItemAndFetchUser(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking by id: " + bookingId + " not found"));
-        if (booking.getItem().getOwner().getId() == userId) {
-            changeStatusApprovedOrRejected(booking, status, userId);
-        } else {
+        if (booking.getItem().getOwner().getId() != userId) {
             throw new ValidationException("User by id - " + userId + " not owner");
         }
-        return repository.save(booking);
+        StatusBooking next = nextStatus(booking, status, userId);
+        // the row decides, not the copy read above: of two racing decisions only one finds the booking WAITING
+        if (repository.updateStatus(bookingId, StatusBooking.WAITING, next) == 0) {
+            statusConflicts.increment();
+            log.warn("Status change conflict on booking {} of item {}", bookingId, booking.getItem().getId());
+            throw new ConflictException("Booking by id - " + bookingId + " is no longer waiting for approval.");
+        }
+        if (next == StatusBooking.APPROVED) {
+            summaryService.refresh(List.of(booking.getItem().getId()));
+        } else {
+            // a rejected or canceled booking no longer holds the item
+            calendar.invalidate(List.of(booking.getItem().getId()));
+        }
+        outbox.append(OutboxEventType.BOOKING_STATUS_CHANGED, bookingId,
+                new BookingEventDto(bookingId, booking.getItem().getId(), booking.getBooker().getId(), next));
+        booking.setStatus(next);
+        booking.setVersion(booking.getVersion() + 1);
+        return booking;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingStatusResultDto> changeStatuses(Long userId, BookingStatusRequestDto dto) {
+        log.info("changeStatuses of {} bookings - {}", dto.getBookingIds().size(), dto.getApproved());
+        List<Long> bookingIds = List.copyOf(new LinkedHashSet<>(dto.getBookingIds()));
+        if (bookingIds.isEmpty() || bookingIds.size() > MAX_STATUS_BATCH) {
+            throw new ValidationException("From 1 to " + MAX_STATUS_BATCH + " booking ids expected.");
+        }
+        StatusBooking next = dto.getApproved() ? StatusBooking.APPROVED : StatusBooking.REJECTED;
+        // one query settles existence and ownership of the whole batch
+        Map<Long, BookingOwnership> found = repository.findOwnershipByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(BookingOwnership::getId, Function.identity()));
+        List<Long> owned = bookingIds.stream()
+                .filter(id -> found.containsKey(id) && userId.equals(found.get(id).getOwnerId()))
+                .toList();
+        Map<Long, Boolean> applied = new HashMap<>();
+        if (!owned.isEmpty()) {
+            int[] updated = repository.updateStatuses(owned, StatusBooking.WAITING, next);
+            for (int i = 0; i < owned.size(); i++) {
+                applied.put(owned.get(i), updated[i] > 0);
+            }
+        }
+        List<BookingOwnership> changed = owned.stream()
+                .filter(applied::get)
+                .map(found::get)
+                .toList();
+        outbox.appendAll(OutboxEventType.BOOKING_STATUS_CHANGED, changed.stream()
+                .map(booking -> new BookingEventDto(booking.getId(), booking.getItemId(), booking.getBookerId(), next))
+                .toList(), BookingEventDto::getBookingId);
+        Set<Long> changedItemIds = changed.stream()
+                .map(BookingOwnership::getItemId)
+                .collect(Collectors.toSet());
+        if (next == StatusBooking.APPROVED) {
+            summaryService.refresh(changedItemIds);
+        } else {
+            calendar.invalidate(changedItemIds);
+        }
+        return bookingIds.stream()
+                .map(id -> statusResult(id, found.get(id), applied.get(id), next))
+                .toList();
     }
 
     @Override
@@ -89,84 +200,186 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<Booking> getAllBookingsByUserId(Long userId, String state) {
-        log.info("getAllBookingsByUserId by state - {}", state);
-        userService.findById(userId).orElseThrow(() -> new NotFoundException("User by id: " + userId + " not found"));
-        List<Booking> bookings;
+    public List<BookingListDto> getAllBookingsByUserId(Long userId, String state, BookingCursor cursor,
+                                                       int from, int size) {
+        log.info("getAllBookingsByUserId by state - {}, cursor - {}", state, cursor);
+        Pageable page = toPage(cursor, from, size);
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingListDto> bookings;
         switch (state) {
             case "ALL" -> {
-                bookings = repository.findAllByIdFetchItemAndFetchUser(userId);
+                bookings = repository.findAllByBookerId(userId, cursor, page);
             }
             case "CURRENT" -> {
-                bookings = repository.findAllBookingByCurrentDate(userId, LocalDateTime.now());
+                bookings = repository.findAllBookingByCurrentDate(userId, now, cursor, page);
             }
             case "PAST" -> {
-                bookings = repository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now());
+                bookings = repository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, now, cursor, page);
             }
             case "FUTURE" -> {
-                bookings = repository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now());
+                bookings = repository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, now, cursor, page);
             }
             case "WAITING" -> {
-                bookings = repository.findAllByBookerIdAndStatusOrderByStartDesc(userId, StatusBooking.WAITING);
+                bookings = repository.findAllByBookerIdAndStatusOrderByStartDesc(
+                        userId, StatusBooking.WAITING, cursor, page);
             }
             case "REJECTED" -> {
-                bookings = repository.findAllByBookerIdAndStatusOrderByStartDesc(userId, StatusBooking.REJECTED);
+                bookings = repository.findAllByBookerIdAndStatusOrderByStartDesc(
+                        userId, StatusBooking.REJECTED, cursor, page);
             }
             default -> throw new ValidationException("status - " + state + " is not supported");
         }
-        return bookings;
+        return requireUserUnlessFound(userId, bookings);
     }
 
     @Override
-    public List<Booking> getBookingsForAllItemsByUserId(Long userId, String state) {
-        log.info("getBookingsAllItemsByUserId by state - {}", state);
-        userService.findById(userId).orElseThrow(() -> new NotFoundException("User by id: " + userId + " not found"));
-        List<Booking> bookings;
+    public List<BookingListDto> getBookingsForAllItemsByUserId(Long userId, String state, BookingCursor cursor,
+                                                               int from, int size) {
+        log.info("getBookingsAllItemsByUserId by state - {}, cursor - {}", state, cursor);
+        Pageable page = toPage(cursor, from, size);
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingListDto> bookings;
         switch (state) {
             case "ALL" -> {
-                bookings = repository.findAllByItemOwnerIdOrderByStartDesc(userId);
+                bookings = repository.findAllByItemOwnerIdOrderByStartDesc(userId, cursor, page);
             }
             case "CURRENT" -> {
-                bookings = repository.findAllByBookingItemsCurrentDate(userId, LocalDateTime.now());
+                bookings = repository.findAllByBookingItemsCurrentDate(userId, now, cursor, page);
             }
             case "PAST" -> {
-                bookings = repository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now());
+                bookings = repository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now, cursor, page);
             }
             case "FUTURE" -> {
-                bookings = repository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now());
+                bookings = repository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now, cursor, page);
             }
             case "WAITING" -> {
-                bookings = repository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, StatusBooking.WAITING);
+                bookings = repository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
+                        userId, StatusBooking.WAITING, cursor, page);
             }
             case "REJECTED" -> {
-                bookings = repository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, StatusBooking.REJECTED);
+                bookings = repository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
+                        userId, StatusBooking.REJECTED, cursor, page);
             }
             default -> throw new ValidationException("status - " + state + " is not supported");
         }
+        return requireUserUnlessFound(userId, bookings);
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("getAvailability of item {} from {} to {}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Start of the period must be before its end.");
+        }
+        // answered from the second-level cache for a known item
+        if (itemService.findById(itemId).isEmpty()) {
+            throw new NotFoundException("Item by id: " + itemId + " not found");
+        }
+        return calendar.getAvailability(itemId, from, to);
+    }
+
+    /**
+     * A listed booking references the user through a foreign key, so only an empty page costs the extra existence
+     * query telling an unknown user apart from one without bookings.
+     */
+    private List<BookingListDto> requireUserUnlessFound(Long userId, List<BookingListDto> bookings) {
+        if (bookings.isEmpty() && !userService.existsById(userId)) {
+            throw new NotFoundException("User by id: " + userId + " not found");
+        }
         return bookings;
     }
 
-    private void changeStatusApprovedOrRejected(Booking booking, Boolean state, Long userId) {
+    /**
+     * Works out which condition of the conditional insert failed, these lookups are only paid for on a rejection.
+     */
+    private RuntimeException rejection(Long userId, Long itemId) {
+        if (userService.findById(userId).isEmpty()) {
+            return new NotFoundException("User by id: " + userId + " not found");
+        }
+        Item item = itemService.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item by id: " + itemId + " not found"));
+        if (!item.getAvailable()) {
+            return new ValidationException("Item by id - " + item.getId() + " not available.");
+        }
+        return overlapping(itemId);
+    }
+
+    /**
+     * Tells a violation of the bookings_no_overlap_ex exclusion constraint from other integrity errors, such as a
+     * foreign key or not-null violation, which are not the booker's fault.
+     */
+    private static boolean isOverlap(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ConflictException overlapping(Long itemId) {
+        overlapConflicts.increment();
+        log.warn("Booking overlap conflict on item {}", itemId);
+        return new ConflictException("Item by id - " + itemId + " is already booked for these dates.");
+    }
+
+    private BookingStatusResultDto statusResult(Long bookingId, BookingOwnership booking, Boolean applied,
+                                                StatusBooking next) {
+        BookingStatusResultDto.BookingStatusResultDtoBuilder result = BookingStatusResultDto.builder()
+                .bookingId(bookingId);
+        if (booking == null) {
+            return result.result(Result.NOT_FOUND).build();
+        }
+        if (applied == null) {
+            return result.result(Result.NOT_OWNER).build();
+        }
+        if (applied) {
+            return result.result(Result.UPDATED).status(next).build();
+        }
+        statusConflicts.increment();
+        log.warn("Status change conflict on booking {}", bookingId);
+        // a booking read as WAITING was decided concurrently, its new status is not known here
+        StatusBooking current = booking.getStatus() == StatusBooking.WAITING ? null : booking.getStatus();
+        return result.result(Result.NOT_WAITING).status(current).build();
+    }
+
+    private static Pageable toPage(BookingCursor cursor, int from, int size) {
+        if (BookingCursor.FIRST.equals(cursor)) {
+            return PageRequest.of(from / size, size);
+        }
+        return PageRequest.of(0, size);
+    }
+
+    private static StatusBooking nextStatus(Booking booking, Boolean state, Long userId) {
         if (state) {
-            booking.setStatus(StatusBooking.APPROVED);
+            return StatusBooking.APPROVED;
         } else if (userId.equals(booking.getBooker().getId())) {
-            booking.setStatus(StatusBooking.CANCELED);
+            return StatusBooking.CANCELED;
         } else {
-            booking.setStatus(StatusBooking.REJECTED);
+            return StatusBooking.REJECTED;
         }
     }
 
     @Override
-    public Booking findLastBooking(Long userId) {
-        return repository
-                .findFirstByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now())
-                .orElse(null);
-    }
-
-    @Override
-    public Booking findNextBooking(Long userId) {
-        return repository
-                .findFirstByItemOwnerIdAndStartAfterOrderByStart(userId, LocalDateTime.now())
-                .orElse(null);
+    public Map<Long, LastAndNextBookingDto> findLastAndNextBookings(Collection<Long> itemIds) {
+        Map<Long, ItemBookingSummary> summaries = summaryService.findByItemIds(itemIds);
+        List<Long> bookingIds = summaries.values().stream()
+                .flatMap(summary -> Stream.of(summary.getLastBookingId(), summary.getNextBookingId()))
+                .filter(Objects::nonNull)
+                .toList();
+        if (bookingIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, BookingListDto> bookings = repository.findListDtosByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(BookingListDto::getId, Function.identity()));
+        Map<Long, LastAndNextBookingDto> result = new HashMap<>();
+        summaries.forEach((itemId, summary) -> {
+            BookingListDto last = bookings.get(summary.getLastBookingId());
+            BookingListDto next = bookings.get(summary.getNextBookingId());
+            if (last != null || next != null) {
+                result.put(itemId, new LastAndNextBookingDto(last, next));
+            }
+        });
+        return result;
     }
 }
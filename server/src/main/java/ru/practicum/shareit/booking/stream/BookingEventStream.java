@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking.stream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes booking events to the gateways as server-sent events. Each gateway holds one connection and fans the events
+ * out to its own subscribers, so the server keeps a handful of emitters however many users listen.
+ * Events are read from the stream table every relay on every node writes to, in commit order; the event id sent is
+ * the stream position, so a gateway reconnecting with {@code Last-Event-ID}, to this node or another, misses nothing
+ * still retained.
+ */
+@Slf4j
+@Component
+public class BookingEventStream {
+
+    private final BookingStreamRepository repository;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final int batchSize;
+    private final Duration timeout;
+    private final Duration retention;
+    private Long lastSeq;
+
+    public BookingEventStream(BookingStreamRepository repository, MeterRegistry registry,
+                              @Value("${shareit.booking-stream.batch-size:500}") int batchSize,
+                              @Value("${shareit.booking-stream.timeout:PT30M}") Duration timeout,
+                              @Value("${shareit.booking-stream.retention:PT1H}") Duration retention) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+        this.retention = retention;
+        Gauge.builder("shareit.server.booking.stream.subscribers", emitters, List::size)
+                .description("Open booking event streams, one per connected gateway")
+                .register(registry);
+    }
+
+    /**
+     * @param lastEventId stream position of the last event the caller received, the retained events after it are
+     *                    sent first
+     */
+    public synchronized SseEmitter subscribe(@Nullable Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitters.remove(emitter));
+        if (lastEventId != null && lastEventId > lastSeq()) {
+            // the caller was streaming from a node that had read further than this one
+            poll();
+        }
+        long last = lastSeq();
+        if (lastEventId != null) {
+            long after = lastEventId;
+            while (after < last) {
+                List<BookingStreamEvent> missed = repository.findAllBySeqGreaterThanOrderBySeq(after,
+                                Limit.of(batchSize)).stream()
+                        .filter(event -> event.getSeq() <= last)
+                        .toList();
+                if (missed.isEmpty()) {
+                    break;
+                }
+                if (!send(emitter, missed)) {
+                    return emitter;
+                }
+                after = missed.get(missed.size() - 1).getSeq();
+            }
+        }
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    /**
+     * Sends the events committed since the last poll to every open stream.
+     *
+     * @return the number of events read
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-stream.poll-interval:PT1S}")
+    public synchronized int poll() {
+        int total = 0;
+        List<BookingStreamEvent> events;
+        do {
+            events = repository.findAllBySeqGreaterThanOrderBySeq(lastSeq(), Limit.of(batchSize));
+            if (events.isEmpty()) {
+                break;
+            }
+            lastSeq = events.get(events.size() - 1).getSeq();
+            total += events.size();
+            List<BookingStreamEvent> batch = events;
+            // a gateway that went away is dropped, the others still get the events
+            emitters.removeIf(emitter -> !send(emitter, batch));
+        } while (events.size() == batchSize);
+        return total;
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds the ones closed without notice.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-stream.heartbeat:PT15S}")
+    public synchronized void heartbeat() {
+        emitters.removeIf(emitter -> !send(emitter, SseEmitter.event().comment("heartbeat")));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-stream.prune-interval:PT10M}")
+    public void prune() {
+        int pruned = repository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        log.debug("Pruned {} booking stream events", pruned);
+    }
+
+    // a node starts streaming from the events committed after it first needs the position
+    private long lastSeq() {
+        if (lastSeq == null) {
+            lastSeq = repository.findLastSeq();
+        }
+        return lastSeq;
+    }
+
+    private static boolean send(SseEmitter emitter, List<BookingStreamEvent> events) {
+        for (BookingStreamEvent event : events) {
+            if (!send(emitter, SseEmitter.event()
+                    .id(String.valueOf(event.getSeq()))
+                    .name(event.getType().name())
+                    .data(event.getPayload(), MediaType.APPLICATION_JSON))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Booking event stream closed: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Booking events of all users for the gateway, which filters them per subscriber.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/bookings/events")
+public class BookingStreamController {
+
+    private final BookingEventStream stream;
+
+    public BookingStreamController(BookingEventStream stream) {
+        this.stream = stream;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        log.info("GET /bookings/events: subscribe after event - {}", lastEventId);
+        return stream.subscribe(lastEventId);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.stream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingStreamRepository extends JpaRepository<BookingStreamEvent, Long>,
+        BookingStreamRepositoryCustom {
+
+    List<BookingStreamEvent> findAllBySeqGreaterThanOrderBySeq(long seq, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.seq), 0) FROM BookingStreamEvent e")
+    long findLastSeq();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BookingStreamEvent e WHERE e.created < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.stream;
+
+import ru.practicum.shareit.outbox.OutboxEvent;
+
+import java.util.List;
+
+public interface BookingStreamRepositoryCustom {
+
+    /**
+     * Adds the events to the stream in the order given, skipping those already in it.
+     */
+    void append(List<OutboxEvent> events);
+}
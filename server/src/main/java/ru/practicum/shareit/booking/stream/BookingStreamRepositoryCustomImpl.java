@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.stream;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import ru.practicum.shareit.outbox.OutboxEvent;
+
+import java.util.List;
+
+class BookingStreamRepositoryCustomImpl implements BookingStreamRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO booking_stream_events (event_id, event_type, payload, created) " +
+            "SELECT :eventId, :type, :payload, :created WHERE NOT EXISTS " +
+            "(SELECT 1 FROM booking_stream_events WHERE event_id = :eventId)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    BookingStreamRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void append(List<OutboxEvent> events) {
+        SqlParameterSource[] batch = events.stream()
+                .map(event -> new MapSqlParameterSource()
+                        .addValue("eventId", event.getId())
+                        .addValue("type", event.getType().name())
+                        .addValue("payload", event.getPayload())
+                        .addValue("created", event.getCreated()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT, batch);
+    }
+}
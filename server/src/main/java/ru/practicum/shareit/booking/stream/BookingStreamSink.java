@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.stream;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxSink;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes relayed booking events to the stream table in the relay's transaction: they are in the stream exactly when
+ * the relay commits, whichever node it runs on.
+ */
+@Component
+public class BookingStreamSink implements OutboxSink {
+
+    private static final Set<OutboxEventType> STREAMED =
+            Set.of(OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_STATUS_CHANGED);
+
+    private final BookingStreamRepository repository;
+
+    public BookingStreamSink(BookingStreamRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        List<OutboxEvent> streamed = events.stream()
+                .filter(event -> STREAMED.contains(event.getType()))
+                .toList();
+        if (!streamed.isEmpty()) {
+            repository.append(streamed);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking.summary;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized last and next approved booking of an item. The row is created with the item and only ever changed
+ * through {@link ItemBookingSummaryRepository#refresh}, so item views answer with a primary key lookup instead of
+ * ordering the item's bookings.
+ */
+@Getter
+@Entity
+@ToString
+@NoArgsConstructor
+@Table(name = "item_booking_summary", schema = "public")
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    // the association only orders the insert after the item's within a batch
+    @MapsId
+    @ToString.Exclude
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    /**
+     * When the next booking starts or the current one ends, after which the row no longer holds.
+     */
+    @Column(name = "refresh_at")
+    private LocalDateTime refreshAt;
+
+    public ItemBookingSummary(Item item) {
+        this.item = item;
+    }
+}
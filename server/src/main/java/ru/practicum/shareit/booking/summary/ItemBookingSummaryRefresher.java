@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rolls summaries forward as time passes: a next booking that has started is no longer next, a booking that has
+ * ended becomes the last one. Between two runs item views may show a summary up to one interval old.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummaryRefresher {
+
+    private final ItemBookingSummaryService summaryService;
+    private final int batchSize;
+
+    public ItemBookingSummaryRefresher(ItemBookingSummaryService summaryService,
+                                       @Value("${shareit.booking-summary.batch-size:500}") int batchSize) {
+        this.summaryService = summaryService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-interval:PT1M}")
+    public int refreshExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int refreshed;
+        do {
+            // a transaction per batch keeps the row locks short
+            refreshed = summaryService.refreshExpired(now, batchSize);
+            total += refreshed;
+        } while (refreshed == batchSize);
+        if (total > 0) {
+            log.info("Refreshed {} item booking summaries", total);
+        }
+        return total;
+    }
+}
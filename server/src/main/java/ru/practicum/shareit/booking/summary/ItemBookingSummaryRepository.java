@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    String RECOMPUTE = "UPDATE item_booking_summary s SET " +
+            "last_booking_id = (SELECT b.id FROM bookings b " +
+            "WHERE b.item_id = s.item_id AND b.status = 'APPROVED' AND b.end_date < :now " +
+            "ORDER BY b.start_date DESC, b.id DESC FETCH FIRST 1 ROWS ONLY), " +
+            "next_booking_id = (SELECT b.id FROM bookings b " +
+            "WHERE b.item_id = s.item_id AND b.status = 'APPROVED' AND b.start_date > :now " +
+            "ORDER BY b.start_date, b.id FETCH FIRST 1 ROWS ONLY), " +
+            "refresh_at = (SELECT MIN(CASE WHEN b.start_date > :now THEN b.start_date ELSE b.end_date END) " +
+            "FROM bookings b WHERE b.item_id = s.item_id AND b.status = 'APPROVED' AND b.end_date >= :now) ";
+
+    /**
+     * Takes the summary rows of the items in a fixed order. {@link #refresh} must run after this in the same
+     * transaction: its statement then sees every booking approved by a transaction that held a row before.
+     */
+    @Query(value = "SELECT s.item_id FROM item_booking_summary s WHERE s.item_id IN (:itemIds) " +
+            "ORDER BY s.item_id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByItemIdIn(Collection<Long> itemIds);
+
+    /**
+     * Same as {@link #lockByItemIdIn} for at most {@code limit} rows whose refresh time has passed.
+     */
+    @Query(value = "SELECT s.item_id FROM item_booking_summary s WHERE s.refresh_at < :now " +
+            "ORDER BY s.item_id FETCH FIRST :limit ROWS ONLY FOR UPDATE", nativeQuery = true)
+    List<Long> lockExpired(LocalDateTime now, int limit);
+
+    @Modifying
+    @Query(value = RECOMPUTE + "WHERE s.item_id IN (:itemIds)", nativeQuery = true)
+    int refresh(Collection<Long> itemIds, LocalDateTime now);
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class ItemBookingSummaryService {
+
+    private final ItemBookingSummaryRepository repository;
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository repository) {
+        this.repository = repository;
+    }
+
+    public Map<Long, ItemBookingSummary> findByItemIds(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return repository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+    }
+
+    /**
+     * Recomputes the summaries of the items after one of their bookings was approved, within the caller's
+     * transaction.
+     */
+    @Transactional
+    public void refresh(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        List<Long> locked = repository.lockByItemIdIn(new TreeSet<>(itemIds));
+        if (!locked.isEmpty()) {
+            repository.refresh(locked, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Recomputes at most {@code limit} summaries whose next booking has started or current booking has ended.
+     *
+     * @return the number of summaries recomputed, less than {@code limit} once none are left
+     */
+    @Transactional
+    public int refreshExpired(LocalDateTime now, int limit) {
+        List<Long> expired = repository.lockExpired(now, limit);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        log.debug("refreshing {} item booking summaries", expired.size());
+        return repository.refresh(expired, now);
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level cache for the rows nearly every request starts with. Hibernate keeps the regions in step with its own
+ * writes: with {@code READ_WRITE} an entry is locked while a transaction changes the row and replaced once it commits,
+ * so updates and deletes through the repositories never leave a stale copy behind.
+ */
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+@ConditionalOnProperty(name = "shareit.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class EntityCacheConfig {
+
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+
+    private static final String METRIC = "shareit.server.entity.cache.";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // the provider hands out one manager per URI, every application context gets regions of its own
+        CacheManager cacheManager = provider.getCacheManager(URI.create("shareit:entity-cache:" + UUID.randomUUID()),
+                getClass().getClassLoader());
+        for (String region : List.of(USERS, ITEMS)) {
+            cacheManager.createCache(region, regionConfiguration(properties));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(CacheManager entityCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // feeds the hibernate.second.level.cache.* meters and the hit ratio below
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    public MeterBinder entityCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> List.of(USERS, ITEMS).forEach(region -> Gauge.builder(METRIC + "hit.ratio",
+                        statistics, stats -> hitRatio(stats.getDomainDataRegionStatistics(region)))
+                .tag("region", region)
+                .description("Share of entity lookups in the region answered without a query")
+                .register(registry));
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(EntityCacheProperties properties) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(properties.getMaxEntries()));
+        configuration.setExpireAfterWrite(OptionalLong.of(properties.getTtl().toNanos()));
+        // Hibernate stores immutable disassembled state, there is nothing to copy on the way in or out
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        long lookups = region.getHitCount() + region.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) region.getHitCount() / lookups;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the Hibernate second-level cache regions holding users and items.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.cache")
+public class EntityCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Per region.
+     */
+    private long maxEntries = 10_000;
+
+    /**
+     * Upper bound on staleness for rows changed outside this application, e.g. by a migration or another node.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
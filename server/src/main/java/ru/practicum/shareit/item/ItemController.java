@@ -1,6 +1,10 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,14 +14,23 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.ETags;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @Slf4j
@@ -27,28 +40,52 @@ public class ItemController {
 
     private final ItemService itemService;
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
-    public ItemController(ItemService itemService, BookingService bookingService) {
+    public ItemController(ItemService itemService, BookingService bookingService, ObjectMapper objectMapper) {
         this.itemService = itemService;
         this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemId) {
+    public ResponseEntity<byte[]> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @PathVariable Long itemId) {
         log.info("GET /items/itemId: getItemsById - {}, user id - {}", itemId, userId);
-        return ItemMapper.toDto(itemService.getItemsById(itemId), bookingService, itemService, userId);
+        ItemDto item = ItemMapper.toDto(itemService.getItemsById(itemId), bookingService, itemService, userId);
+        return ETags.ok(objectMapper, item);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("GET /items/id/availability: getAvailability of item {} from {} to {}, user id - {}",
+                itemId, from, to, userId);
+        return bookingService.getAvailability(itemId, from, to);
     }
 
     @GetMapping
     public Collection<ItemShortDto> getItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("GET /items: getItemsByUserId by user id - {}", userId);
-        return ItemMapper.toShortDto(itemService.getItemsByUserId(userId), bookingService, itemService, userId);
+        return ItemMapper.toShortDto(itemService.getItemsByUserId(userId), bookingService, itemService);
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> getItemsByText(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestParam String text) {
-        log.info("GET /items/search: getItemsByText - {}", text);
-        return ItemMapper.toDto(itemService.getItemsByText(text), bookingService, itemService, userId);
+    public Collection<ItemDto> getItemsByText(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestParam String text,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                              @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                              @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("GET /items/search: getItemsByText - {}, start - {}, end - {}, from - {}, size - {}",
+                text, start, end, from, size);
+        return ItemMapper.toDto(itemService.getItemsByText(text, start, end, from, size), bookingService, itemService,
+                userId);
     }
 
     @PostMapping
@@ -57,6 +94,16 @@ public class ItemController {
         return ItemMapper.toDto(itemService.create(userId, item), bookingService, itemService, userId);
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           InputStream body) throws IOException {
+        log.info("POST /items/batch: importItems where owner {}", userId);
+        // read line by line while importing, the payload is never held in memory as a whole
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            return itemService.importItems(userId, lines.lines());
+        }
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -6,7 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.user.User;
 
 import java.util.List;
@@ -27,8 +27,8 @@ public class ItemDto {
     private User owner;
     private Long requestId;
 
-    private Booking lastBooking;
-    private Booking nextBooking;
+    private BookingListDto lastBooking;
+    private BookingListDto nextBooking;
 
     private List<CommentDto> comments;
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of item events in the outbox: the item as of the change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemEventDto {
+    private Long itemId;
+    private Long ownerId;
+    private String name;
+    private String description;
+    private Boolean available;
+}
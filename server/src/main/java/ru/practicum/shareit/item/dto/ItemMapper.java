@@ -1,11 +1,17 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookingListDto;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemListView;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 @UtilityClass
 public class ItemMapper {
@@ -24,16 +30,37 @@ public class ItemMapper {
                 .comments(itemService.getComments(item))
                 .build();
         if (userId.equals(item.getOwner().getId())) {
-            dto.setLastBooking(bookingService.findLastBooking(userId));
-            dto.setNextBooking(bookingService.findNextBooking(userId));
+            LastAndNextBookingDto bookings = bookingService.findLastAndNextBookings(List.of(item.getId()))
+                    .get(item.getId());
+            if (bookings != null) {
+                dto.setLastBooking(bookings.getLastBooking());
+                dto.setNextBooking(bookings.getNextBooking());
+            }
         }
         return dto;
     }
 
     public static Collection<ItemDto> toDto(Collection<Item> items, BookingService bookingService,
                                             ItemService itemService, Long userId) {
+        Map<Long, List<CommentDto>> comments = itemService.getComments(items.stream().map(Item::getId).toList());
+        List<Long> ownItemIds = items.stream()
+                .filter(item -> userId.equals(item.getOwner().getId()))
+                .map(Item::getId)
+                .toList();
+        Map<Long, LastAndNextBookingDto> bookings = bookingService.findLastAndNextBookings(ownItemIds);
+
         return items.stream()
-                .map(item -> ItemMapper.toDto(item, bookingService, itemService, userId))
+                .map(item -> ItemDto.builder()
+                        .id(item.getId())
+                        .name(item.getName())
+                        .description(item.getDescription())
+                        .available(item.getAvailable())
+                        .owner(item.getOwner())
+                        .requestId(item.getRequestId())
+                        .lastBooking(lastBooking(bookings, item.getId()))
+                        .nextBooking(nextBooking(bookings, item.getId()))
+                        .comments(comments.getOrDefault(item.getId(), Collections.emptyList()))
+                        .build())
                 .toList();
     }
 
@@ -54,25 +81,21 @@ public class ItemMapper {
         return item;
     }
 
-    public static ItemShortDto toShortDto(Item item, BookingService bookingService,
-                                          ItemService itemService, Long userId) {
-        if (item == null) {
-            return null;
-        }
-        return ItemShortDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .lastBooking(bookingService.findLastBooking(userId))
-                .nextBooking(bookingService.findNextBooking(userId))
-                .comments(itemService.getComments(item))
-                .build();
-    }
+    public static Collection<ItemShortDto> toShortDto(Collection<ItemListView> items, BookingService bookingService,
+                                                      ItemService itemService) {
+        List<Long> itemIds = items.stream().map(ItemListView::getId).toList();
+        Map<Long, List<CommentDto>> comments = itemService.getComments(itemIds);
+        Map<Long, LastAndNextBookingDto> bookings = bookingService.findLastAndNextBookings(itemIds);
 
-    public static Collection<ItemShortDto> toShortDto(Collection<Item> items, BookingService bookingService,
-                                                      ItemService itemService, Long userId) {
         return items.stream()
-                .map(item -> ItemMapper.toShortDto(item, bookingService, itemService, userId))
+                .map(item -> ItemShortDto.builder()
+                        .id(item.getId())
+                        .name(item.getName())
+                        .description(item.getDescription())
+                        .lastBooking(lastBooking(bookings, item.getId()))
+                        .nextBooking(nextBooking(bookings, item.getId()))
+                        .comments(comments.getOrDefault(item.getId(), Collections.emptyList()))
+                        .build())
                 .toList();
     }
 
@@ -86,4 +109,14 @@ public class ItemMapper {
                 .ownerId(item.getOwner().getId())
                 .build();
     }
+
+    private static BookingListDto lastBooking(Map<Long, LastAndNextBookingDto> bookings, Long itemId) {
+        LastAndNextBookingDto itemBookings = bookings.get(itemId);
+        return itemBookings == null ? null : itemBookings.getLastBooking();
+    }
+
+    private static BookingListDto nextBooking(Map<Long, LastAndNextBookingDto> bookings, Long itemId) {
+        LastAndNextBookingDto itemBookings = bookings.get(itemId);
+        return itemBookings == null ? null : itemBookings.getNextBooking();
+    }
 }
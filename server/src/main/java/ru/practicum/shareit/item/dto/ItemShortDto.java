@@ -3,7 +3,7 @@ package ru.practicum.shareit.item.dto;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Builder;
 import lombok.Data;
-import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 
 import java.util.List;
 
@@ -16,8 +16,8 @@ public class ItemShortDto {
     @NotBlank
     private String description;
 
-    private Booking lastBooking;
-    private Booking nextBooking;
+    private BookingListDto lastBooking;
+    private BookingListDto nextBooking;
 
     private List<CommentDto> comments;
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.model;
+
+/**
+ * The columns of an item its owner's listing shows; read as a projection, so neither the item nor its owner is
+ * loaded into the persistence context.
+ */
+public interface ItemListView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+}
@@ -1,11 +1,17 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     Collection<Comment> findAllByItemIdOrderByCreatedDesc(Long itemId);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author JOIN FETCH c.item i JOIN FETCH i.owner " +
+            "WHERE i.id IN :itemIds ORDER BY c.created DESC")
+    List<Comment> findAllByItemIdInOrderByCreatedDesc(Collection<Long> itemIds);
 }
@@ -1,16 +1,32 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemListView;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    Collection<Item> findAllByOwnerId(Long ownerId);
+    // the bookings a new one may not overlap, as in the conditional insert; answered from bookings_item_period_idx
+    String BLOCKING_BOOKING = " b.status IN (ru.practicum.shareit.booking.StatusBooking.WAITING, " +
+            "ru.practicum.shareit.booking.StatusBooking.APPROVED) AND b.start < :end AND b.end > :start";
+
+    String NOT_BOOKED_BETWEEN = " AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.item.id = i.id AND" +
+            BLOCKING_BOOKING + ")";
+
+    @Query("SELECT i.id AS id, i.name AS name, i.description AS description FROM Item i " +
+            "WHERE i.owner.id = :ownerId ORDER BY i.id")
+    List<ItemListView> findListViewsByOwnerId(Long ownerId);
 
     @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.id = :id")
     Optional<Item> findItemWithOwnerById(Long id);
@@ -20,5 +36,55 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "AND i.available")
     Collection<Item> findAllByNamePattern(String text);
 
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner " +
+            "WHERE (i.name || i.description) ILIKE %:text% " +
+            "AND i.available " +
+            "ORDER BY CASE WHEN i.name ILIKE %:text% THEN 0 ELSE 1 END, i.id")
+    List<Item> findAllByNamePattern(String text, Pageable pageable);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner " +
+            "WHERE (i.name || i.description) ILIKE %:text% " +
+            "AND i.available" + NOT_BOOKED_BETWEEN +
+            " ORDER BY CASE WHEN i.name ILIKE %:text% THEN 0 ELSE 1 END, i.id")
+    List<Item> findAllNotBookedBetweenByNamePattern(String text, LocalDateTime start, LocalDateTime end,
+                                                    Pageable pageable);
+
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.is_available AND i.search_vector @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', :query)) DESC, i.id", nativeQuery = true)
+    List<Long> findIdsByFullTextQuery(String query, Pageable pageable);
+
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.is_available AND i.search_vector @@ to_tsquery('simple', :query) " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id " +
+            "AND b.status IN ('WAITING', 'APPROVED') AND b.start_date < :end AND b.end_date > :start) " +
+            "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', :query)) DESC, i.id", nativeQuery = true)
+    List<Long> findIdsNotBookedBetweenByFullTextQuery(String query, LocalDateTime start, LocalDateTime end,
+                                                      Pageable pageable);
+
+    /**
+     * Those of the items that have a booking overlapping {@code [start, end)}.
+     */
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.item.id IN :itemIds AND" + BLOCKING_BOOKING)
+    List<Long> findIdsBookedBetween(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.id IN :ids")
+    List<Item> findAllByIdInFetchOwner(Collection<Long> ids);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.available AND i.id > :afterId ORDER BY i.id")
+    List<Item> findAllAvailableAfterId(long afterId, Pageable pageable);
+
+    default List<Item> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = findAllByIdInFetchOwner(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     List<Item> findAllByRequestId(Long requestId);
 }
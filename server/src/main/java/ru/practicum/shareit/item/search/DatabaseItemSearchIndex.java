@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchIndex implements ItemSearchIndex {
+
+    private final ItemRepository repository;
+    private final boolean fullTextSearch;
+
+    public DatabaseItemSearchIndex(ItemRepository repository,
+                                   @Value("${shareit.search.full-text:false}") boolean fullTextSearch) {
+        this.repository = repository;
+        this.fullTextSearch = fullTextSearch;
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        PageRequest page = PageRequest.of(from / size, size);
+        if (!fullTextSearch) {
+            return repository.findAllByNamePattern(text, page);
+        }
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return repository.findAllByIdInOrder(repository.findIdsByFullTextQuery(query, page));
+    }
+
+    @Override
+    public List<Item> searchNotBookedBetween(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        // an anti-join: the database settles the period for the whole candidate set, not item by item
+        PageRequest page = PageRequest.of(from / size, size);
+        if (!fullTextSearch) {
+            return repository.findAllNotBookedBetweenByNamePattern(text, start, end, page);
+        }
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return repository.findAllByIdInOrder(repository.findIdsNotBookedBetweenByFullTextQuery(query, start, end,
+                page));
+    }
+
+    @Override
+    public void index(Item item) {
+        // rows are indexed by the database itself
+    }
+
+    private static String toTsQuery(String text) {
+        return ItemTokenizer.tokenize(text).stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
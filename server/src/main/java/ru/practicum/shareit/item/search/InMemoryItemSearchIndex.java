@@ -0,0 +1,319 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over tokenized names and descriptions of available items.
+ * Matches every query token as a prefix; items matching more tokens by name come first.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchIndex implements ItemSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int BOOKED_CHECK_BATCH_SIZE = 500;
+    private static final long[] EMPTY = new long[0];
+
+    private final ItemRepository repository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FieldIndex names = new FieldIndex();
+    private final FieldIndex descriptions = new FieldIndex();
+
+    public InMemoryItemSearchIndex(ItemRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            descriptions.clear();
+            long afterId = 0;
+            int indexed = 0;
+            List<Item> batch;
+            do {
+                batch = repository.findAllAvailableAfterId(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Item item : batch) {
+                    add(item.getId(), item.getName(), item.getDescription());
+                    afterId = item.getId();
+                }
+                indexed += batch.size();
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            log.info("Item search index rebuilt: {} items, {} name terms, {} description terms",
+                    indexed, names.termCount(), descriptions.termCount());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        List<Long> ids = searchIds(text, from, size);
+        return ids.isEmpty() ? Collections.emptyList() : repository.findAllByIdInOrder(ids);
+    }
+
+    @Override
+    public List<Item> searchNotBookedBetween(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        List<Long> ids = searchIdsNotBookedBetween(text, start, end, from, size);
+        return ids.isEmpty() ? Collections.emptyList() : repository.findAllByIdInOrder(ids);
+    }
+
+    /**
+     * Walks the ranked matches a batch at a time, each batch checked against the bookings with one query, until the
+     * page is filled.
+     */
+    public List<Long> searchIdsNotBookedBetween(String text, LocalDateTime start, LocalDateTime end,
+                                                int from, int size) {
+        List<Long> ranked = searchIds(text, 0, Integer.MAX_VALUE);
+        List<Long> result = new ArrayList<>(Math.min(size, ranked.size()));
+        int skipped = 0;
+        for (int offset = 0; offset < ranked.size() && result.size() < size; offset += BOOKED_CHECK_BATCH_SIZE) {
+            List<Long> batch = ranked.subList(offset, Math.min(offset + BOOKED_CHECK_BATCH_SIZE, ranked.size()));
+            Set<Long> booked = new HashSet<>(repository.findIdsBookedBetween(batch, start, end));
+            for (int i = 0; i < batch.size() && result.size() < size; i++) {
+                if (booked.contains(batch.get(i))) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else {
+                    result.add(batch.get(i));
+                }
+            }
+        }
+        return result;
+    }
+
+    public List<Long> searchIds(String text, int from, int size) {
+        List<String> tokens = ItemTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long[] matches = null;
+        List<long[]> nameMatches = new ArrayList<>(tokens.size());
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                long[] byName = names.prefix(token);
+                long[] byToken = union(byName, descriptions.prefix(token));
+                matches = matches == null ? byToken : intersect(matches, byToken);
+                if (matches.length == 0) {
+                    return Collections.emptyList();
+                }
+                nameMatches.add(byName);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return page(matches, nameMatches, from, size);
+    }
+
+    @Override
+    public void index(Item item) {
+        long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        Runnable apply = () -> {
+            lock.writeLock().lock();
+            try {
+                names.remove(id);
+                descriptions.remove(id);
+                if (available) {
+                    add(id, name, description);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private void add(long id, String name, String description) {
+        names.add(id, name);
+        descriptions.add(id, description);
+    }
+
+    private static List<Long> page(long[] matches, List<long[]> nameMatches, int from, int size) {
+        int[] scores = new int[matches.length];
+        for (long[] byName : nameMatches) {
+            for (int i = 0; i < matches.length; i++) {
+                if (Arrays.binarySearch(byName, matches[i]) >= 0) {
+                    scores[i]++;
+                }
+            }
+        }
+        List<Long> result = new ArrayList<>(Math.min(size, matches.length));
+        int skipped = 0;
+        for (int score = nameMatches.size(); score >= 0 && result.size() < size; score--) {
+            for (int i = 0; i < matches.length && result.size() < size; i++) {
+                if (scores[i] != score) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else {
+                    result.add(matches[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long[] union(long[] left, long[] right) {
+        if (left.length == 0) {
+            return right;
+        }
+        if (right.length == 0) {
+            return left;
+        }
+        long[] result = new long[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                result[k++] = left[i++];
+            } else if (left[i] > right[j]) {
+                result[k++] = right[j++];
+            } else {
+                result[k++] = left[i++];
+                j++;
+            }
+        }
+        while (i < left.length) {
+            result[k++] = left[i++];
+        }
+        while (j < right.length) {
+            result[k++] = right[j++];
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[k++] = left[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private static final class FieldIndex {
+
+        private final NavigableMap<String, LongPostingList> postings = new TreeMap<>();
+        private final Map<Long, String[]> documentTerms = new HashMap<>();
+
+        void add(long id, String text) {
+            List<String> tokens = ItemTokenizer.tokenize(text);
+            String[] terms = new String[tokens.size()];
+            for (int i = 0; i < terms.length; i++) {
+                String token = tokens.get(i);
+                LongPostingList list = postings.get(token);
+                if (list == null) {
+                    list = new LongPostingList();
+                    postings.put(token, list);
+                    terms[i] = token;
+                } else {
+                    terms[i] = postings.ceilingKey(token);
+                }
+                list.add(id);
+            }
+            documentTerms.put(id, terms);
+        }
+
+        void remove(long id) {
+            String[] terms = documentTerms.remove(id);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                LongPostingList list = postings.get(term);
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        long[] prefix(String token) {
+            SortedMap<String, LongPostingList> range = postings.subMap(token, token + Character.MAX_VALUE);
+            if (range.isEmpty()) {
+                return EMPTY;
+            }
+            if (range.size() == 1) {
+                return range.values().iterator().next().toArray();
+            }
+            int total = 0;
+            for (LongPostingList list : range.values()) {
+                total += list.size();
+            }
+            long[] ids = new long[total];
+            int offset = 0;
+            for (LongPostingList list : range.values()) {
+                list.copyTo(ids, offset);
+                offset += list.size();
+            }
+            Arrays.sort(ids);
+            int distinct = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0 || ids[i] != ids[i - 1]) {
+                    ids[distinct++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(ids, distinct);
+        }
+
+        int termCount() {
+            return postings.size();
+        }
+
+        void clear() {
+            postings.clear();
+            documentTerms.clear();
+        }
+    }
+}
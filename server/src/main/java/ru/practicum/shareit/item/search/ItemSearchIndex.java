@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchIndex {
+
+    List<Item> search(String text, int from, int size);
+
+    /**
+     * Like {@link #search}, leaving out items with a WAITING or APPROVED booking overlapping {@code [start, end)}.
+     */
+    List<Item> searchNotBookedBetween(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    void index(Item item);
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.List;
+
+@UtilityClass
+public class ItemTokenizer {
+
+    private static final String SEPARATOR = "[^\\p{L}\\p{N}]+";
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase().split(SEPARATOR))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
@@ -2,25 +2,41 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemListView;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface ItemService {
 
     Item getItemsById(Long itemId);
 
-    Collection<Item> getItemsByUserId(Long userId);
+    List<ItemListView> getItemsByUserId(Long userId);
 
-    Collection<Item> getItemsByText(String text);
+    /**
+     * With {@code start} and {@code end} given, only items that can be booked for that period are returned.
+     */
+    Collection<Item> getItemsByText(String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     Item create(Long userId, ItemDto item);
 
     Item update(Long userId, Long itemId, ItemDto item);
 
+    /**
+     * Creates an item per NDJSON line for one owner. Lines that cannot be imported are reported instead of failing
+     * the whole import, blank lines are skipped but still counted.
+     */
+    ItemImportResultDto importItems(Long userId, Stream<String> lines);
+
     Comment addComment(Long userId, Long itemId, CommentDto commentDto);
 
     List<CommentDto> getComments(Item item);
+
+    Map<Long, List<CommentDto>> getComments(Collection<Long> itemIds);
 }
@@ -1,65 +1,124 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.error.exeption.ConflictException;
 import ru.practicum.shareit.error.exeption.NotFoundException;
 import ru.practicum.shareit.error.exeption.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemEventDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemListView;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
+    // matches hibernate.jdbc.batch_size and the items_seq allocation size: one id fetch and one JDBC batch per flush
+    private static final int IMPORT_BATCH_SIZE = 50;
+
     private final ItemRepository repository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemRequestRepository requestRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Outbox outbox;
+    private final Counter versionConflicts;
 
     public ItemServiceImpl(ItemRepository repository,
                            UserService userService,
                            BookingRepository bookingRepository,
-                           CommentRepository commentRepository) {
+                           CommentRepository commentRepository,
+                           ItemSearchIndex searchIndex,
+                           ItemRequestRepository requestRepository,
+                           EntityManager entityManager,
+                           ObjectMapper objectMapper,
+                           Outbox outbox,
+                           MeterRegistry registry) {
         this.repository = repository;
         this.userService = userService;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
+        this.searchIndex = searchIndex;
+        this.requestRepository = requestRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.outbox = outbox;
+        this.versionConflicts = Counter.builder("shareit.server.conflicts")
+                .tag("entity", "item")
+                .tag("reason", "version")
+                .description("Item updates refused because the item changed since it was read")
+                .register(registry);
     }
 
     @Override
     public Item getItemsById(Long itemId) {
-        return repository.findItemWithOwnerById(itemId)
+        // a primary key lookup is answered from the second-level cache, owner included
+        return repository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item by id: " + itemId + " not found"));
     }
 
     @Override
-    public Collection<Item> getItemsByUserId(Long userId) {
-        return repository.findAllByOwnerId(userId);
+    public List<ItemListView> getItemsByUserId(Long userId) {
+        return repository.findListViewsByOwnerId(userId);
     }
 
     @Override
-    public Collection<Item> getItemsByText(String text) {
+    public Collection<Item> getItemsByText(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Both start and end of the period are expected.");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ValidationException("Start of the period must be before its end.");
+        }
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        return repository.findAllByNamePattern(text);
+        return start == null
+                ? searchIndex.search(text, from, size)
+                : searchIndex.searchNotBookedBetween(text, start, end, from, size);
     }
 
     @Override
@@ -70,7 +129,10 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getName() == null || itemDto.getDescription() == null) {
             throw new ValidationException("Name or Description is null.");
         }
-        return repository.save(ItemMapper.toItem(itemDto));
+        Item item = repository.save(ItemMapper.toItem(itemDto));
+        entityManager.persist(new ItemBookingSummary(item));
+        searchIndex.index(item);
+        return item;
     }
 
     @Override
@@ -90,7 +152,90 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             oldItem.setAvailable(itemDto.getAvailable());
         }
-        return repository.save(oldItem);
+        Item item;
+        try {
+            // flushed here so that a concurrent update surfaces as a conflict rather than at commit
+            item = repository.saveAndFlush(oldItem);
+        } catch (OptimisticLockingFailureException e) {
+            versionConflicts.increment();
+            log.warn("Update conflict on item {}", itemId);
+            throw new ConflictException("Item by id - " + itemId + " was changed concurrently, reload and retry.");
+        }
+        outbox.append(OutboxEventType.ITEM_UPDATED, item.getId(), new ItemEventDto(item.getId(), owner.getId(),
+                item.getName(), item.getDescription(), item.getAvailable()));
+        searchIndex.index(item);
+        return item;
+    }
+
+    @Override
+    @Transactional
+    public ItemImportResultDto importItems(Long userId, Stream<String> lines) {
+        User owner = userService.findUserById(userId);
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        Map<Long, Item> batch = new LinkedHashMap<>();
+        int imported = 0;
+        long lineNumber = 0;
+        Iterator<String> iterator = lines.iterator();
+        while (iterator.hasNext()) {
+            String line = iterator.next();
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ItemDto itemDto;
+            try {
+                itemDto = objectMapper.readValue(line, ItemDto.class);
+            } catch (JsonProcessingException e) {
+                errors.add(new ItemImportErrorDto(lineNumber, "Malformed item: " + e.getOriginalMessage()));
+                continue;
+            }
+            if (isBlank(itemDto.getName()) || isBlank(itemDto.getDescription()) || itemDto.getAvailable() == null) {
+                errors.add(new ItemImportErrorDto(lineNumber, "Name, description and available are required."));
+                continue;
+            }
+            batch.put(lineNumber, Item.builder()
+                    .name(itemDto.getName())
+                    .description(itemDto.getDescription())
+                    .available(itemDto.getAvailable())
+                    .owner(owner)
+                    .requestId(itemDto.getRequestId())
+                    .build());
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                imported += saveBatch(batch, errors);
+            }
+        }
+        imported += saveBatch(batch, errors);
+        errors.sort(Comparator.comparingLong(ItemImportErrorDto::getLine));
+        log.info("importItems by owner {}: {} imported, {} rejected", userId, imported, errors.size());
+        return new ItemImportResultDto(imported, errors);
+    }
+
+    /**
+     * Inserts the batch in one flush and detaches it, so an import holds at most one batch in the persistence
+     * context whatever its size.
+     */
+    private int saveBatch(Map<Long, Item> batch, List<ItemImportErrorDto> errors) {
+        // an unknown request would fail the foreign key and with it the whole flush, so weed it out per line
+        Set<Long> requestIds = batch.values().stream()
+                .map(Item::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> knownRequestIds = requestIds.isEmpty() ? Set.of() : requestRepository.findIdsByIdIn(requestIds);
+        List<Item> items = new ArrayList<>(batch.size());
+        batch.forEach((lineNumber, item) -> {
+            if (item.getRequestId() == null || knownRequestIds.contains(item.getRequestId())) {
+                items.add(item);
+            } else {
+                errors.add(new ItemImportErrorDto(lineNumber, "Request by id: " + item.getRequestId() + " not found"));
+            }
+        });
+        batch.clear();
+        repository.saveAll(items);
+        items.forEach(item -> entityManager.persist(new ItemBookingSummary(item)));
+        repository.flush();
+        items.forEach(searchIndex::index);
+        entityManager.clear();
+        return items.size();
     }
 
     @Override
@@ -111,4 +256,18 @@ public class ItemServiceImpl implements ItemService {
     public List<CommentDto> getComments(Item item) {
         return CommentMapper.toDto(commentRepository.findAllByItemIdOrderByCreatedDesc(item.getId()));
     }
+
+    @Override
+    public Map<Long, List<CommentDto>> getComments(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return commentRepository.findAllByItemIdInOrderByCreatedDesc(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
 }
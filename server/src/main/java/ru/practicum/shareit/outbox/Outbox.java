@@ -0,0 +1,58 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Records domain events in the transaction of the change they describe: they are relayed if and only if it commits,
+ * and the request pays for one batched insert rather than for the delivery.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class Outbox {
+
+    private final OutboxRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public Outbox(OutboxRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void append(OutboxEventType type, long aggregateId, Object payload) {
+        appendAll(type, List.of(payload), ignored -> aggregateId);
+    }
+
+    public <T> void appendAll(OutboxEventType type, Collection<T> payloads, ToLongFunction<T> aggregateId) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        repository.append(payloads.stream()
+                .map(payload -> OutboxEvent.builder()
+                        .aggregateType(type.getAggregateType())
+                        .aggregateId(aggregateId.applyAsLong(payload))
+                        .type(type)
+                        .payload(toJson(payload))
+                        .created(now)
+                        .build())
+                .toList());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.Getter;
+
+@Getter
+public enum OutboxEventType {
+    BOOKING_CREATED("booking"),
+    BOOKING_STATUS_CHANGED("booking"),
+    ITEM_UPDATED("item");
+
+    private final String aggregateType;
+
+    OutboxEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox in batches: a batch is locked, handed to every sink and deleted in one transaction, so an event
+ * is only gone once all sinks have taken it. A failed batch stays in place and is retried on the next run. Relays on
+ * different nodes run their batches one at a time, so sinks writing to the database write in commit order.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final String METRIC = "shareit.server.outbox.";
+
+    private final OutboxRepository repository;
+    private final ObjectProvider<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+    private final Timer delivery;
+    private final DistributionSummary batches;
+    private final Counter failures;
+
+    public OutboxRelay(OutboxRepository repository, ObjectProvider<OutboxSink> sinks,
+                       PlatformTransactionManager transactionManager, MeterRegistry registry,
+                       @Value("${shareit.outbox.batch-size:200}") int batchSize) {
+        this.repository = repository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        TimeGauge.builder(METRIC + "lag", oldestAgeMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest event waiting when the relay last ran, grows while delivery fails")
+                .register(registry);
+        this.delivery = Timer.builder(METRIC + "delivery")
+                .description("Time from writing an event to handing it to the sinks")
+                .register(registry);
+        this.batches = DistributionSummary.builder(METRIC + "batch.size")
+                .description("Events relayed per batch")
+                .register(registry);
+        this.failures = Counter.builder(METRIC + "failures")
+                .description("Batches left in the outbox because a sink failed")
+                .register(registry);
+    }
+
+    /**
+     * @return the number of events relayed
+     */
+    @Scheduled(fixedDelayString = "${shareit.outbox.relay-interval:PT1S}")
+    public int relay() {
+        int total = 0;
+        int relayed;
+        try {
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+                total += relayed;
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Outbox relay failed after {} events, retrying on the next run", total, e);
+        }
+        return total;
+    }
+
+    private int relayBatch() {
+        repository.lockRelay();
+        List<OutboxEvent> events = repository.lockOldest(batchSize);
+        LocalDateTime now = LocalDateTime.now();
+        oldestAgeMillis.set(events.isEmpty() ? 0 : Duration.between(events.get(0).getCreated(), now).toMillis());
+        if (events.isEmpty()) {
+            return 0;
+        }
+        sinks.orderedStream().forEach(sink -> sink.publish(events));
+        repository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+        batches.record(events.size());
+        events.forEach(event -> delivery.record(Duration.between(event.getCreated(), now)));
+        log.debug("Relayed {} outbox events", events.size());
+        return events.size();
+    }
+}
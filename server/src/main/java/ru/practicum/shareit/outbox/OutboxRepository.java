@@ -0,0 +1,23 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long>, OutboxRepositoryCustom {
+
+    /**
+     * Takes the oldest events for the rest of the transaction. Without SKIP LOCKED a second relay waits rather than
+     * overtaking the first with newer events of the same booking or item.
+     */
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id FETCH FIRST :limit ROWS ONLY FOR UPDATE",
+            nativeQuery = true)
+    List<OutboxEvent> lockOldest(int limit);
+
+    /**
+     * Makes relays on all nodes take turns for the rest of the transaction, see V12.
+     */
+    @Query(value = "SELECT id FROM outbox_relay_lock FOR UPDATE", nativeQuery = true)
+    List<Integer> lockRelay();
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.List;
+
+public interface OutboxRepositoryCustom {
+
+    /**
+     * Inserts the events in a single JDBC batch, in the order given. Their ids are not read back.
+     */
+    void append(List<OutboxEvent> events);
+}
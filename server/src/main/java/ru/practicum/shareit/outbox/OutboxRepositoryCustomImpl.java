@@ -0,0 +1,33 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.List;
+
+class OutboxRepositoryCustomImpl implements OutboxRepositoryCustom {
+
+    // an identity id would make Hibernate insert each event on its own as soon as it is persisted
+    private static final String INSERT = "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, " +
+            "payload, created) VALUES (:aggregateType, :aggregateId, :type, :payload, :created)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    OutboxRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void append(List<OutboxEvent> events) {
+        SqlParameterSource[] batch = events.stream()
+                .map(event -> new MapSqlParameterSource()
+                        .addValue("aggregateType", event.getAggregateType())
+                        .addValue("aggregateId", event.getAggregateId())
+                        .addValue("type", event.getType().name())
+                        .addValue("payload", event.getPayload())
+                        .addValue("created", event.getCreated()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT, batch);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of relayed events. Delivery is at least once: a batch is published again when this throws, when
+ * another sink throws or when the relay stops before deleting it, so consumers deduplicate by event id.
+ */
+public interface OutboxSink {
+
+    /**
+     * @param events in id order, which is the order of changes to any one booking or item
+     */
+    void publish(List<OutboxEvent> events);
+}
@@ -2,12 +2,18 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(Long requestorId);
 
     List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(Long requestorId, PageRequest pageable);
+
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.id IN :ids")
+    Set<Long> findIdsByIdIn(Collection<Long> ids);
 }
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.error.exeption.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -17,6 +21,7 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
     @Transactional
@@ -52,5 +57,22 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void delete(Long userId) {
         repository.deleteById(userId);
+        // the database deletes the user's items, and those of the user's requests, by ON DELETE CASCADE, which
+        // Hibernate does not see; they are dropped from the cache once the delete commits, when no read can put them
+        // back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictItems();
+                }
+            });
+        } else {
+            evictItems();
+        }
+    }
+
+    private void evictItems() {
+        entityManagerFactory.getCache().evict(Item.class);
     }
 }
@@ -0,0 +1,10 @@
+-- domain events written in the transaction of the change they describe, deleted once relayed to the sinks;
+-- a change to a booking or item holds its row until commit, so the events of one aggregate get ascending ids
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             BIGSERIAL   PRIMARY KEY,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id   BIGINT      NOT NULL,
+    event_type     VARCHAR(64) NOT NULL,
+    payload        TEXT        NOT NULL,
+    created        TIMESTAMP   WITHOUT TIME ZONE NOT NULL
+);
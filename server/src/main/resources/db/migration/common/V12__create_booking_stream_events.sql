@@ -0,0 +1,19 @@
+-- the single row every outbox relay locks for its batch: relays on different nodes take turns, so what one relay
+-- writes commits before the next relay writes anything
+CREATE TABLE IF NOT EXISTS outbox_relay_lock (
+    id INTEGER PRIMARY KEY
+);
+INSERT INTO outbox_relay_lock (id) VALUES (1);
+
+-- booking events as relayed, read by the event stream of every server node; seq is taken within the serialized
+-- relay, so it follows commit order and a reader that has seen seq n has seen every event before it
+CREATE TABLE IF NOT EXISTS booking_stream_events (
+    seq        BIGSERIAL   PRIMARY KEY,
+    event_id   BIGINT      NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload    TEXT        NOT NULL,
+    created    TIMESTAMP   WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT uq_booking_stream_event UNIQUE (event_id)
+);
+
+CREATE INDEX IF NOT EXISTS booking_stream_events_created_idx ON booking_stream_events (created);
@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
   id    BIGSERIAL    PRIMARY KEY,
   name  VARCHAR(120) NOT NULL,
@@ -31,15 +25,15 @@ CREATE TABLE IF NOT EXISTS bookings (
     id         BIGSERIAL   PRIMARY KEY,
     start_date TIMESTAMP   WITHOUT TIME ZONE NOT NULL,
     end_date   TIMESTAMP   WITHOUT TIME ZONE NOT NULL,
-    item_id    INT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
-    booker_id  INT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    item_id    BIGINT      NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+    booker_id  BIGINT      NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     status     VARCHAR(20) NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS comments (
     id        BIGSERIAL PRIMARY KEY,
     text      TEXT NOT NULL,
-    item_id   INT  NOT NULL REFERENCES items(id) ON DELETE CASCADE,
-    author_id INT  NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    item_id   BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+    author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     created   TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
@@ -0,0 +1,23 @@
+-- one row per item with its last and next approved booking, kept up to date on approval and by a periodic refresh
+-- once refresh_at has passed, i.e. when the next booking starts or the current one ends
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id         BIGINT    PRIMARY KEY REFERENCES items (id) ON DELETE CASCADE,
+    last_booking_id BIGINT    REFERENCES bookings (id) ON DELETE SET NULL,
+    next_booking_id BIGINT    REFERENCES bookings (id) ON DELETE SET NULL,
+    refresh_at      TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS item_booking_summary_refresh_at_idx ON item_booking_summary (refresh_at);
+
+INSERT INTO item_booking_summary (item_id) SELECT id FROM items;
+
+UPDATE item_booking_summary s SET
+    last_booking_id = (SELECT b.id FROM bookings b
+        WHERE b.item_id = s.item_id AND b.status = 'APPROVED' AND b.end_date < LOCALTIMESTAMP
+        ORDER BY b.start_date DESC, b.id DESC FETCH FIRST 1 ROWS ONLY),
+    next_booking_id = (SELECT b.id FROM bookings b
+        WHERE b.item_id = s.item_id AND b.status = 'APPROVED' AND b.start_date > LOCALTIMESTAMP
+        ORDER BY b.start_date, b.id FETCH FIRST 1 ROWS ONLY),
+    refresh_at = (SELECT MIN(CASE WHEN b.start_date > LOCALTIMESTAMP THEN b.start_date ELSE b.end_date END)
+        FROM bookings b
+        WHERE b.item_id = s.item_id AND b.status = 'APPROVED' AND b.end_date >= LOCALTIMESTAMP);
@@ -0,0 +1,2 @@
+-- probed by the availability filter of item search: item, then the range of starts before the period ends
+CREATE INDEX IF NOT EXISTS bookings_item_period_idx ON bookings (item_id, start_date, end_date);
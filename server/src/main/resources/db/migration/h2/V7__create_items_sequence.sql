@@ -0,0 +1,7 @@
+-- Hibernate allocates item ids 50 at a time (pooled optimizer): nextval returns the top of the next block, so the
+-- first block must end 50 above the existing ids
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+ALTER SEQUENCE items_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM items);
+
+-- an insert falling back to the identity default would collide with a block already handed out
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,4 @@
+-- probed by the availability filter of item search: item, then the range of starts before the period ends;
+-- only bookings that hold their item are indexed, end_date is read from the index without visiting the row
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_item_period_idx ON bookings (item_id, start_date, end_date)
+    WHERE status IN ('WAITING', 'APPROVED');
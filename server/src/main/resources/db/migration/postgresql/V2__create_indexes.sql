@@ -0,0 +1,14 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_owner_id_idx ON items (owner_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS items_request_id_idx ON items (request_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_booker_status_start_idx
+    ON bookings (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_item_status_start_idx
+    ON bookings (item_id, status, start_date DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_item_booker_end_idx ON bookings (item_id, booker_id, end_date);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS comments_item_created_idx ON comments (item_id, created DESC);
@@ -0,0 +1,47 @@
+-- bookings are TIMESTAMP WITHOUT TIME ZONE, hence tsrange; '[)' lets one booking end when the next starts
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Bookings made before the constraint may already overlap, and ADD CONSTRAINT would then fail and stop the server.
+-- Of two overlapping waiting or approved bookings of an item the one that takes precedence is kept: an approved
+-- booking over a waiting one, otherwise the one made earlier. The other is rejected. A booking is only rejected by one
+-- that is itself certain to stay, so each pass settles at least one booking and a chain of overlaps A-B-C keeps A and C.
+-- Rejected bookings are listed in the server log as NOTICEs, for their bookers to be told.
+DO $$
+DECLARE
+    settled INTEGER;
+    booking RECORD;
+BEGIN
+    CREATE TEMPORARY TABLE overlapping_bookings (id BIGINT, kept_id BIGINT) ON COMMIT DROP;
+    LOOP
+        TRUNCATE overlapping_bookings;
+        INSERT INTO overlapping_bookings
+        SELECT later.id, MIN(kept.id)
+        FROM bookings later
+        JOIN bookings kept ON kept.item_id = later.item_id AND kept.id <> later.id
+            AND kept.status IN ('WAITING', 'APPROVED')
+            AND tsrange(kept.start_date, kept.end_date, '[)') && tsrange(later.start_date, later.end_date, '[)')
+            AND (kept.status = 'APPROVED' AND later.status = 'WAITING'
+                OR kept.status = later.status AND kept.id < later.id)
+        WHERE later.status IN ('WAITING', 'APPROVED')
+            AND NOT EXISTS (
+                SELECT 1 FROM bookings earlier
+                WHERE earlier.item_id = kept.item_id AND earlier.id <> kept.id
+                    AND earlier.status IN ('WAITING', 'APPROVED')
+                    AND tsrange(earlier.start_date, earlier.end_date, '[)')
+                        && tsrange(kept.start_date, kept.end_date, '[)')
+                    AND (earlier.status = 'APPROVED' AND kept.status = 'WAITING'
+                        OR earlier.status = kept.status AND earlier.id < kept.id))
+        GROUP BY later.id;
+        GET DIAGNOSTICS settled = ROW_COUNT;
+        EXIT WHEN settled = 0;
+
+        FOR booking IN SELECT id, kept_id FROM overlapping_bookings ORDER BY id LOOP
+            RAISE NOTICE 'Booking % rejected, it overlaps booking %', booking.id, booking.kept_id;
+        END LOOP;
+        UPDATE bookings SET status = 'REJECTED' WHERE id IN (SELECT id FROM overlapping_bookings);
+    END LOOP;
+END $$;
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_no_overlap_ex
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date, '[)') WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,8 @@
+-- Hibernate allocates item ids 50 at a time (pooled optimizer): nextval returns the top of the next block, so the
+-- first block must end 50 above the existing ids
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM items), false);
+
+-- an insert falling back to the serial default would collide with a block already handed out
+ALTER TABLE items ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS items_id_seq;
@@ -0,0 +1,51 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ETagsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void ok_whenSameBody_thenSameTag() {
+        assertEquals(tag(item("drill")), tag(item("drill")));
+    }
+
+    @Test
+    void ok_whenHashCodesCollide_thenTagsDiffer() {
+        // "Aa" and "BB" share a String hash code, and so do DTOs differing only in them
+        assertEquals(item("Aa").hashCode(), item("BB").hashCode());
+
+        assertNotEquals(tag(item("Aa")), tag(item("BB")));
+    }
+
+    @Test
+    void ok_whenInvoked_thenDigestedBytesAreTheBody() throws Exception {
+        ResponseEntity<byte[]> response = ETags.ok(objectMapper, item("drill"));
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(item("drill")), response.getBody());
+        assertEquals(ETags.of(response.getBody()), response.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+    }
+
+    private String tag(ItemDto item) {
+        return ETags.ok(objectMapper, item).getHeaders().getETag();
+    }
+
+    private static ItemDto item(String name) {
+        return ItemDto.builder()
+                .id(1L)
+                .name(name)
+                .description("cordless")
+                .available(true)
+                .build();
+    }
+}
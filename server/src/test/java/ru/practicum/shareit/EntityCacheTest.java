@@ -0,0 +1,156 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.cache.EntityCacheConfig;
+import ru.practicum.shareit.error.exeption.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reads through the services after writes through the services: the second-level cache must serve repeated lookups
+ * and must never hand out the state from before a committed update or delete.
+ */
+// a database of its own: the tests delete users, and with them items other tests expect by id
+@SpringBootTest(properties = {"shareit.cache.enabled=true", "spring.datasource.url=jdbc:h2:mem:entity-cache"})
+class EntityCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void before() {
+        user = userService.create(UserDto.builder()
+                .name("cached")
+                .email(UUID.randomUUID() + "@example.com")
+                .build());
+    }
+
+    @Test
+    void findUserById_whenReadTwice_thenSecondReadServedFromCache() {
+        long hits = region(EntityCacheConfig.USERS).getHitCount();
+
+        userService.findUserById(user.getId());
+        userService.findUserById(user.getId());
+
+        assertTrue(region(EntityCacheConfig.USERS).getHitCount() > hits);
+        double hitRatio = meterRegistry.get("shareit.server.entity.cache.hit.ratio")
+                .tag("region", EntityCacheConfig.USERS)
+                .gauge()
+                .value();
+        assertTrue(hitRatio > 0 && hitRatio <= 1);
+    }
+
+    @Test
+    void findUserById_whenUpdatedAfterCached_thenNewStateReturned() {
+        userService.findUserById(user.getId());
+
+        userService.update(UserDto.builder().name("renamed").build(), user.getId());
+
+        assertEquals("renamed", userService.findUserById(user.getId()).getName());
+    }
+
+    @Test
+    void findUserById_whenDeletedAfterCached_thenNotFound() {
+        userService.findUserById(user.getId());
+
+        userService.delete(user.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.findUserById(user.getId()));
+    }
+
+    @Test
+    void getItemsById_whenUpdatedAfterCached_thenNewStateReturned() {
+        Item item = itemService.create(user.getId(), ItemDto.builder()
+                .name("drill")
+                .description("cordless")
+                .available(true)
+                .build());
+        itemService.getItemsById(item.getId());
+        long hits = region(EntityCacheConfig.ITEMS).getHitCount();
+        itemService.getItemsById(item.getId());
+        assertTrue(region(EntityCacheConfig.ITEMS).getHitCount() > hits);
+
+        itemService.update(user.getId(), item.getId(), ItemDto.builder().name("hammer").available(false).build());
+
+        Item actual = itemService.getItemsById(item.getId());
+        assertEquals("hammer", actual.getName());
+        assertEquals(false, actual.getAvailable());
+        assertEquals(user.getId(), actual.getOwner().getId());
+    }
+
+    @Test
+    void getItemsById_whenOwnerDeletedAfterCached_thenNotFound() {
+        Item item = itemService.create(user.getId(), ItemDto.builder()
+                .name("saw")
+                .description("hand saw")
+                .available(true)
+                .build());
+        itemService.getItemsById(item.getId());
+
+        userService.delete(user.getId());
+
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+        assertThrows(NotFoundException.class, () -> itemService.getItemsById(item.getId()));
+    }
+
+    @Test
+    void getItemsById_whenRequestorDeletedAfterCached_thenNotFound() {
+        User requestor = userService.create(UserDto.builder()
+                .name("requestor")
+                .email(UUID.randomUUID() + "@example.com")
+                .build());
+        ItemRequestDto request = itemRequestService.create(requestor.getId(), ItemRequestDto.builder()
+                .description("need a ladder")
+                .build());
+        Item item = itemService.create(user.getId(), ItemDto.builder()
+                .name("ladder")
+                .description("three metres")
+                .available(true)
+                .requestId(request.getId())
+                .build());
+        itemService.getItemsById(item.getId());
+
+        userService.delete(requestor.getId());
+
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+        assertThrows(NotFoundException.class, () -> itemService.getItemsById(item.getId()));
+    }
+
+    private CacheRegionStatistics region(String region) {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics().getDomainDataRegionStatistics(region);
+    }
+}
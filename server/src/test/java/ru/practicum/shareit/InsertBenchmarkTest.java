@@ -0,0 +1,84 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares writing each entity as soon as it is persisted, which is all Hibernate can do when the id comes from an
+ * identity column, with pooled sequence ids that let the inserts go out in JDBC batches of 50.
+ * In-process H2 has no network round trip, so the gap against a PostgreSQL server is wider than reported here.
+ * Run with {@code mvn test -Dtest=InsertBenchmarkTest -Dbenchmark=true}.
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InsertBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+    private static final int BATCH = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compareRowByRowAndBatchedInserts() {
+        String run = UUID.randomUUID().toString();
+        insertRowByRow(run + "-row-warmup", ROWS / 10);
+        insertBatched(run + "-batch-warmup", ROWS / 10);
+
+        long started = System.nanoTime();
+        insertRowByRow(run + "-row", ROWS);
+        log.info("insert per persist: {} inserts/s", perSecond(started));
+
+        started = System.nanoTime();
+        List<User> saved = insertBatched(run + "-batch", ROWS);
+        log.info("pooled ids, batched: {} inserts/s", perSecond(started));
+
+        assertEquals(ROWS, saved.stream().map(User::getId).distinct().count());
+    }
+
+    private void insertRowByRow(String prefix, int rows) {
+        insert(prefix, rows, 1);
+    }
+
+    private List<User> insertBatched(String prefix, int rows) {
+        return insert(prefix, rows, BATCH);
+    }
+
+    private List<User> insert(String prefix, int rows, int flushEvery) {
+        return transactionTemplate.execute(status -> {
+            List<User> users = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                User user = new User(0L, "bench", prefix + i + "@example.com");
+                entityManager.persist(user);
+                users.add(user);
+                if (users.size() % flushEvery == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return users;
+        });
+    }
+
+    private static long perSecond(long started) {
+        return ROWS * 1_000_000_000L / (System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the migration chain against PostgreSQL, which the H2 tests do not: the concurrent index builds, the search
+ * vector and the booking overlap constraint only exist there.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// the migrations run on connections of their own and have to see what the test commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostgresSchemaMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrate_whenEmptyDatabase_thenWholeChainApplied() {
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = 'bookings_no_overlap_ex'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_indexes WHERE indexname = 'items_owner_id_idx'", Integer.class));
+    }
+
+    @Test
+    void migrate_whenDatabaseOfOldBootstrap_thenBaselinedAndDataKept() throws Exception {
+        jdbcTemplate.execute("CREATE SCHEMA legacy");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("SET search_path TO legacy");
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/common/V1__create_tables.sql"));
+        }
+        jdbcTemplate.update("INSERT INTO legacy.users (name, email) VALUES ('owner', 'owner@mail.ru')");
+        jdbcTemplate.update("INSERT INTO legacy.items (name, description, owner_id) "
+                + "SELECT 'drill', 'a drill', id FROM legacy.users");
+
+        Flyway legacy = Flyway.configure()
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .dataSource(dataSource)
+                .schemas("legacy")
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+        legacy.migrate();
+
+        assertEquals(0, legacy.info().pending().length);
+        assertEquals(flyway.info().current().getVersion(), legacy.info().current().getVersion());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM legacy.items", Integer.class));
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs EXPLAIN over the SQL behind the hot repository queries and fails when one of them is planned as a full scan.
+ * H2 marks such a step as {@code tableScan}, PostgreSQL as {@code Seq Scan}.
+ */
+@DataJpaTest
+class SchemaIndexTest {
+
+    private static final String TIME = "TIMESTAMP '2024-01-01 12:00:00'";
+    private static final String AFTER_CURSOR = " AND (b.start_date < TIMESTAMP '9999-12-31 23:59:59' " +
+            "OR (b.start_date = TIMESTAMP '9999-12-31 23:59:59' AND b.id < 9223372036854775807))" +
+            " ORDER BY b.start_date DESC, b.id DESC LIMIT 10";
+    private static final String BY_OWNER = "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id " +
+            "WHERE i.owner_id = 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT b.* FROM bookings b WHERE b.booker_id = 1" + AFTER_CURSOR,
+            "SELECT b.* FROM bookings b WHERE b.booker_id = 1 AND b.start_date <= " + TIME +
+                    " AND b.end_date >= " + TIME + AFTER_CURSOR,
+            "SELECT b.* FROM bookings b WHERE b.booker_id = 1 AND b.end_date <= " + TIME + AFTER_CURSOR,
+            "SELECT b.* FROM bookings b WHERE b.booker_id = 1 AND b.start_date >= " + TIME + AFTER_CURSOR,
+            "SELECT b.* FROM bookings b WHERE b.booker_id = 1 AND b.status = 'WAITING'" + AFTER_CURSOR,
+            BY_OWNER + AFTER_CURSOR,
+            BY_OWNER + " AND b.start_date <= " + TIME + " AND b.end_date >= " + TIME + AFTER_CURSOR,
+            BY_OWNER + " AND b.end_date <= " + TIME + AFTER_CURSOR,
+            BY_OWNER + " AND b.start_date >= " + TIME + AFTER_CURSOR,
+            BY_OWNER + " AND b.status = 'WAITING'" + AFTER_CURSOR,
+            "SELECT b.* FROM bookings b WHERE b.item_id = 1 AND b.booker_id = 1 AND b.end_date < " + TIME +
+                    " ORDER BY b.start_date DESC",
+            "SELECT b.id FROM bookings b WHERE b.item_id IN (1, 2) AND (b.end_date < " + TIME +
+                    " OR b.start_date > " + TIME + ")",
+            "SELECT 1 FROM bookings b WHERE b.item_id = 1 AND b.status IN ('WAITING', 'APPROVED') " +
+                    "AND b.start_date < " + TIME + " AND b.end_date > " + TIME,
+            "SELECT DISTINCT b.item_id FROM bookings b WHERE b.item_id IN (1, 2) " +
+                    "AND b.status IN ('WAITING', 'APPROVED') AND b.start_date < " + TIME + " AND b.end_date > " + TIME,
+            "SELECT c.* FROM comments c WHERE c.item_id = 1 ORDER BY c.created DESC",
+            "SELECT c.* FROM comments c WHERE c.item_id IN (1, 2) ORDER BY c.created DESC",
+            "SELECT i.* FROM items i WHERE i.owner_id = 1",
+            "SELECT i.* FROM items i WHERE i.request_id = 1",
+            "SELECT r.* FROM requests r WHERE r.requestor_id = 1 ORDER BY r.created DESC"
+    })
+    void explain_whenHotQuery_thenPlannedWithIndex(String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+
+        assertFalse(plan.stream().anyMatch(line -> line.contains("tableScan") || line.contains("Seq Scan")),
+                () -> String.join("\n", plan));
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void migrate_whenSchemaUpToDate_thenNothingExecuted() {
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+    }
+}
@@ -8,10 +8,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingStatusRequestDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -26,6 +30,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -96,6 +102,29 @@ class BookingControllerTest {
         assertEquals(booking.getEnd(), actualBooking.getEnd());
     }
 
+    @SneakyThrows
+    @Test
+    void getBookingById_whenETagMatches_thenNotModifiedWithoutBody() {
+        when(bookingService.getBookingById(1L, 1L)).thenReturn(booking);
+        String etag = mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        String result = mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("", result);
+    }
+
     @SneakyThrows
     @Test
     void changeStatus_whenInvoked_thenStatusOkAndReturnBooking() {
@@ -114,6 +143,24 @@ class BookingControllerTest {
         assertEquals(StatusBooking.APPROVED, actualBooking.getStatus());
     }
 
+    @SneakyThrows
+    @Test
+    void changeStatuses_whenInvoked_thenStatusOkAndReturnResultPerBooking() {
+        BookingStatusRequestDto request = new BookingStatusRequestDto(List.of(1L, 2L), true);
+        when(bookingService.changeStatuses(1L, request)).thenReturn(List.of(
+                new BookingStatusResultDto(1L, BookingStatusResultDto.Result.UPDATED, StatusBooking.APPROVED),
+                new BookingStatusResultDto(2L, BookingStatusResultDto.Result.NOT_FOUND, null)));
+
+        mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].result").value("UPDATED"))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].result").value("NOT_FOUND"));
+    }
+
     @SneakyThrows
     @Test
     void getBookingById_whenInvoked_thenStatusOkAndReturnBooking() {
@@ -137,60 +184,63 @@ class BookingControllerTest {
     @SneakyThrows
     @Test
     void getAllBookingsByUserId_whenInvoked_thenStatusOkAndReturnListBookings() {
-        Booking booking2 = Booking.builder()
-                .id(2L)
-                .item(item)
-                .booker(user)
-                .start(LocalDateTime.now().plusDays(3))
-                .end(LocalDateTime.now().plusDays(4))
-                .build();
-
-        List<Booking> bookings = List.of(booking, booking2);
+        BookingListDto booking1 = toListDto(booking);
+        BookingListDto booking2 = new BookingListDto(2L, LocalDateTime.now().plusDays(3),
+                LocalDateTime.now().plusDays(4), StatusBooking.WAITING, item.getId(), item.getName(), user.getId(),
+                user.getName());
 
-        when(bookingService.getAllBookingsByUserId(user.getId(), "ALL")).thenReturn(bookings);
+        when(bookingService.getAllBookingsByUserId(user.getId(), "ALL", BookingCursor.FIRST, 0, 2))
+                .thenReturn(List.of(booking1, booking2));
 
 
         MvcResult result = mockMvc.perform(get("/bookings", 1L)
                         .header("X-Sharer-User-Id", 1L)
                         .param("approved", "true")
+                        .param("size", "2")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        BookingCursor.after(booking2).encode()))
+                .andExpect(jsonPath("$[0].booker.name").value(user.getName()))
+                .andExpect(jsonPath("$[0].booker.email").doesNotExist())
                 .andReturn();
 
-        List<Booking> actualBookings = objectMapper
+        List<BookingListDto> actualBookings = objectMapper
                 .readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
                 });
-        assertEquals(2, actualBookings.size());
-        assertEquals(booking.getItem(), actualBookings.stream().findFirst().get().getItem());
-        assertEquals(booking2.getItem(), actualBookings.stream().skip(1).findFirst().get().getItem());
+        assertEquals(List.of(booking1.getItem(), booking2.getItem()),
+                actualBookings.stream().map(BookingListDto::getItem).toList());
     }
 
     @SneakyThrows
     @Test
     void getBookingsAllItemsByUserId_whenUserId1_thenStatusOkAndReturnListBookings() {
+        BookingListDto booking1 = toListDto(booking);
+        BookingListDto booking2 = new BookingListDto(2L, LocalDateTime.now().plusDays(3),
+                LocalDateTime.now().plusDays(4), StatusBooking.WAITING, item.getId(), item.getName(), user.getId(),
+                user.getName());
 
-        Booking booking2 = Booking.builder()
-                .id(2L)
-                .item(item)
-                .booker(user)
-                .start(LocalDateTime.now().plusDays(3))
-                .end(LocalDateTime.now().plusDays(4))
-                .build();
-        List<Booking> bookings = List.of(booking, booking2);
-
-        when(bookingService.getBookingsForAllItemsByUserId(user.getId(), "ALL")).thenReturn(bookings);
+        when(bookingService.getBookingsForAllItemsByUserId(user.getId(), "ALL", BookingCursor.FIRST, 0, 10))
+                .thenReturn(List.of(booking1, booking2));
 
         MvcResult result = mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
                         .param("state", "ALL"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[1].item.owner").doesNotExist())
                 .andReturn();
 
-        List<Booking> actualBookings = objectMapper
+        List<BookingListDto> actualBookings = objectMapper
                 .readValue(result.getResponse().getContentAsString(), new TypeReference<>() {
                 });
-        assertEquals(2, actualBookings.size());
-        assertEquals(booking.getItem(), actualBookings.stream().findFirst().get().getItem());
-        assertEquals(booking2.getItem(), actualBookings.stream().skip(1).findFirst().get().getItem());
+        assertEquals(List.of(booking1.getItem(), booking2.getItem()),
+                actualBookings.stream().map(BookingListDto::getItem).toList());
+    }
+
+    private static BookingListDto toListDto(Booking booking) {
+        return new BookingListDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getBooker().getId(),
+                booking.getBooker().getName());
     }
 }
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.stream.BookingEventStream;
+import ru.practicum.shareit.booking.stream.BookingStreamEvent;
+import ru.practicum.shareit.booking.stream.BookingStreamRepository;
+import ru.practicum.shareit.booking.stream.BookingStreamController;
+import ru.practicum.shareit.outbox.OutboxEventType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class BookingEventStreamTest {
+
+    private BookingStreamRepository repository;
+    private BookingEventStream stream;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void before() {
+        repository = mock(BookingStreamRepository.class);
+        when(repository.findAllBySeqGreaterThanOrderBySeq(anyLong(), any())).thenReturn(List.of());
+        stream = new BookingEventStream(repository, new SimpleMeterRegistry(), 2, Duration.ofMinutes(1),
+                Duration.ofHours(1));
+        mockMvc = MockMvcBuilders.standaloneSetup(new BookingStreamController(stream)).build();
+    }
+
+    @Test
+    void poll_whenEventsCommitted_thenSentInStreamOrderWhateverTheirEventIds() throws Exception {
+        when(repository.findLastSeq()).thenReturn(10L);
+        MvcResult result = subscribe(null);
+        // event 7 committed after event 9 was relayed
+        when(repository.findAllBySeqGreaterThanOrderBySeq(10L, Limit.of(2)))
+                .thenReturn(List.of(event(11L, 9L), event(12L, 7L)));
+        when(repository.findAllBySeqGreaterThanOrderBySeq(12L, Limit.of(2)))
+                .thenReturn(List.of(event(13L, 8L)));
+
+        assertEquals(3, stream.poll());
+
+        String body = result.getResponse().getContentAsString();
+        assertEquals(List.of("id:11", "id:12", "id:13"), ids(body));
+        assertTrue(body.contains("event:BOOKING_STATUS_CHANGED"));
+        assertTrue(body.contains("data:{\"bookingId\":7}"));
+        assertEquals(0, stream.poll());
+    }
+
+    @Test
+    void subscribe_whenLastEventIdGiven_thenRetainedEventsAfterItReplayed() throws Exception {
+        when(repository.findLastSeq()).thenReturn(13L);
+        when(repository.findAllBySeqGreaterThanOrderBySeq(eq(10L), any()))
+                .thenReturn(List.of(event(11L, 1L), event(12L, 2L)));
+        when(repository.findAllBySeqGreaterThanOrderBySeq(eq(12L), any()))
+                .thenReturn(List.of(event(13L, 3L)));
+
+        MvcResult result = subscribe("10");
+
+        assertEquals(List.of("id:11", "id:12", "id:13"), ids(result.getResponse().getContentAsString()));
+    }
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        var request = get("/bookings/events");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static List<String> ids(String body) {
+        return body.lines().filter(line -> line.startsWith("id:")).toList();
+    }
+
+    private static BookingStreamEvent event(long seq, long bookingId) {
+        return BookingStreamEvent.builder()
+                .seq(seq)
+                .eventId(bookingId)
+                .type(OutboxEventType.BOOKING_STATUS_CHANGED)
+                .payload("{\"bookingId\":" + bookingId + "}")
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
@@ -5,16 +5,23 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -22,6 +29,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 @DataJpaTest
 class BookingRepositoryTest {
 
+    private static final BookingCursor FIRST = BookingCursor.FIRST;
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -42,7 +52,8 @@ class BookingRepositoryTest {
         userRepository.deleteAll();
         itemRepository.deleteAll();
 
-        LocalDateTime dateTime = LocalDateTime.now();
+        // the precision of a TIMESTAMP column, so values read back compare equal
+        LocalDateTime dateTime = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         user = userRepository.save(new User(1L, "User", "user@example.com"));
         item = itemRepository.save(Item.builder()
                 .id(1L)
@@ -65,7 +76,7 @@ class BookingRepositoryTest {
                 .item(item)
                 .status(StatusBooking.REJECTED)
                 .build();
-        bookingRepository.saveAll(List.of(booking1, booking2));
+        bookingRepository.saveAllAndFlush(List.of(booking1, booking2));
     }
 
     @Test
@@ -79,29 +90,41 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByIdFetchItemAndFetchUser_whenBookerIdIn2Bookings_thenReturnListBookingsSizeIn2() {
-        List<Booking> actualBookings = bookingRepository.findAllByIdFetchItemAndFetchUser(user.getId());
+    void findBlockingPeriodsByItemId_whenWaitingAndRejected_thenOnlyWaitingPeriodReturned() {
+        List<BookingPeriod> actualPeriods = bookingRepository.findBlockingPeriodsByItemId(item.getId());
+
+        assertEquals(1, actualPeriods.size());
+        assertEquals(booking1.getStart(), actualPeriods.get(0).getStart());
+        assertEquals(booking1.getEnd(), actualPeriods.get(0).getEnd());
+    }
+
+    @Test
+    void findAllByBookerId_whenBookerIdIn2Bookings_thenReturnListBookingsSizeIn2() {
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllByBookerId(user.getId(), FIRST, PAGE);
 
         assertEquals(2, actualBookings.size());
         assertEquals(booking2.getId(), actualBookings.get(0).getId());
         assertEquals(booking1.getId(), actualBookings.get(1).getId());
-        assertEquals(user, actualBookings.get(0).getBooker());
-        assertEquals(user, actualBookings.get(1).getBooker());
+        assertEquals(new BookingListDto.BookerRef(user.getId(), user.getName()), actualBookings.get(0).getBooker());
+        assertEquals(new BookingListDto.BookerRef(user.getId(), user.getName()), actualBookings.get(1).getBooker());
     }
 
     @Test
     void findAllBookingByCurrentDate_whenDateNow_thenReturnListByOneBooker() {
-        List<Booking> actualBookings = bookingRepository.findAllBookingByCurrentDate(user.getId(), LocalDateTime.now());
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllBookingByCurrentDate(user.getId(), LocalDateTime.now(), FIRST, PAGE);
 
         assertEquals(1, actualBookings.size());
         assertEquals(booking1.getId(), actualBookings.get(0).getId());
-        assertEquals(item, actualBookings.get(0).getItem());
+        assertEquals(new BookingListDto.ItemRef(item.getId(), item.getName()), actualBookings.get(0).getItem());
     }
 
     @Test
     void findAllByBookerIdAndEndBeforeOrderByStartDesc_whenDatePlusDay_thenReturnListByOneBooker() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllByBookerIdAndEndBeforeOrderByStartDesc(user.getId(), LocalDateTime.now().plusDays(1));
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllByBookerIdAndEndBeforeOrderByStartDesc(user.getId(), LocalDateTime.now().plusDays(1),
+                        FIRST, PAGE);
 
         assertEquals(1, actualBookings.size());
         assertEquals(booking1.getId(), actualBookings.get(0).getId());
@@ -109,8 +132,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByBookerIdAndStartAfterOrderByStartDesc_whenDateNow_thenReturnListByOneBooker() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllByBookerIdAndStartAfterOrderByStartDesc(user.getId(), LocalDateTime.now());
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllByBookerIdAndStartAfterOrderByStartDesc(user.getId(), LocalDateTime.now(), FIRST, PAGE);
 
         assertEquals(1, actualBookings.size());
         assertEquals(booking2.getId(), actualBookings.get(0).getId());
@@ -118,8 +141,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByBookerIdAndStatusOrderByStartDesc_whenStatusWAITING_thenReturnListByOneBooker() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), StatusBooking.WAITING);
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), StatusBooking.WAITING, FIRST, PAGE);
 
         assertEquals(1, actualBookings.size());
         assertEquals(booking1.getId(), actualBookings.get(0).getId());
@@ -127,7 +150,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByItemOwnerIdOrderByStartDesc_whenOwnerIdIn2Bookers_thenReturnListBookingsSizeIn2() {
-        List<Booking> actualBookings = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(item.getOwner().getId());
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllByItemOwnerIdOrderByStartDesc(item.getOwner().getId(), FIRST, PAGE);
 
         assertEquals(2, actualBookings.size());
         assertEquals(booking2.getId(), actualBookings.get(0).getId());
@@ -136,8 +160,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByBookingItemsCurrentDate_whenInvoked__thenReturnListByOneBooker() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllByBookingItemsCurrentDate(user.getId(), LocalDateTime.now());
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllByBookingItemsCurrentDate(user.getId(), LocalDateTime.now(), FIRST, PAGE);
 
         assertEquals(1, actualBookings.size());
         assertEquals(booking1.getId(), actualBookings.get(0).getId());
@@ -145,8 +169,9 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByItemOwnerIdAndEndBeforeOrderByStartDesc_whenInvoked_thenReturnListByOneBooker() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(user.getId(), LocalDateTime.now().plusDays(1));
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(user.getId(), LocalDateTime.now().plusDays(1),
+                        FIRST, PAGE);
 
         assertEquals(1, actualBookings.size());
         assertEquals(booking1.getId(), actualBookings.get(0).getId());
@@ -154,8 +179,8 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByItemOwnerIdAndStartAfterOrderByStartDesc_whenInvoked_thenReturnListByOneBooker() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllByItemOwnerIdAndStartAfterOrderByStartDesc(user.getId(), LocalDateTime.now());
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllByItemOwnerIdAndStartAfterOrderByStartDesc(user.getId(), LocalDateTime.now(), FIRST, PAGE);
 
         assertEquals(1, actualBookings.size());
         assertEquals(booking2.getId(), actualBookings.get(0).getId());
@@ -163,44 +188,146 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByItemOwnerIdAndStartAfterOrderByStartDesc_whenNotOwner_thenReturnListEmpty() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllByItemOwnerIdAndStartAfterOrderByStartDesc(100L, LocalDateTime.now());
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllByItemOwnerIdAndStartAfterOrderByStartDesc(100L, LocalDateTime.now(), FIRST, PAGE);
         assertTrue(actualBookings.isEmpty());
     }
 
     @Test
     void findAllByItemOwnerIdAndStatusOrderByStartDesc_whenStatusWAITING_thenReturnListByOneBooker() {
-        List<Booking> actualBookings = bookingRepository
-                .findAllByItemOwnerIdAndStatusOrderByStartDesc(user.getId(), StatusBooking.WAITING);
+        List<BookingListDto> actualBookings = bookingRepository
+                .findAllByItemOwnerIdAndStatusOrderByStartDesc(user.getId(), StatusBooking.WAITING, FIRST, PAGE);
 
         assertEquals(1, actualBookings.size());
         assertEquals(booking1.getId(), actualBookings.get(0).getId());
     }
 
     @Test
-    void findFirstByItemOwnerIdAndEndBeforeOrderByStartDesc_whenDatePlusDay_thenReturnBooking1() {
+    void findByItemIdAndBookerIdAndEndBefore_whenInvoked_thenReturnBooking1() {
         Optional<Booking> actualBooking = bookingRepository
-                .findFirstByItemOwnerIdAndEndBeforeOrderByStartDesc(user.getId(), LocalDateTime.now().plusDays(1));
+                .findByItemIdAndBookerIdAndEndBefore(item.getId(), user.getId(), LocalDateTime.now().plusDays(1));
 
         assertTrue(actualBooking.isPresent());
         assertEquals(booking1.getId(), actualBooking.get().getId());
     }
 
     @Test
-    void findFirstByItemOwnerIdAndStartAfterOrderByStart_whenInvoked_thenReturnBooking2() {
-        Optional<Booking> actualBooking = bookingRepository
-                .findFirstByItemOwnerIdAndStartAfterOrderByStart(user.getId(), LocalDateTime.now());
+    void findListDtosByIdIn_whenInvoked_thenReturnBookings() {
+        List<BookingListDto> actualBookings = bookingRepository
+                .findListDtosByIdIn(List.of(booking1.getId(), booking2.getId()));
 
-        assertTrue(actualBooking.isPresent());
-        assertEquals(booking2.getId(), actualBooking.get().getId());
+        assertEquals(2, actualBookings.size());
+        assertEquals(item.getId(), actualBookings.get(0).getItem().getId());
     }
 
     @Test
-    void findByItemIdAndBookerIdAndEndBefore_whenInvoked_thenReturnBooking1() {
-        Optional<Booking> actualBooking = bookingRepository
-                .findByItemIdAndBookerIdAndEndBefore(item.getId(), user.getId(), LocalDateTime.now().plusDays(1));
+    void findAllByBookerId_whenPagedByCursor_thenReturnEachBookingOnce() {
+        Booking sameStart = bookingRepository.save(Booking.builder()
+                .start(booking2.getStart())
+                .end(booking2.getEnd())
+                .booker(user)
+                .item(item)
+                .status(StatusBooking.WAITING)
+                .build());
+        Pageable page = PageRequest.of(0, 2);
 
-        assertTrue(actualBooking.isPresent());
-        assertEquals(booking1.getId(), actualBooking.get().getId());
+        List<BookingListDto> firstPage = bookingRepository.findAllByBookerId(user.getId(), FIRST, page);
+        List<BookingListDto> secondPage = bookingRepository.findAllByBookerId(user.getId(),
+                BookingCursor.after(firstPage.get(1)), page);
+
+        assertEquals(List.of(sameStart.getId(), booking2.getId()),
+                firstPage.stream().map(BookingListDto::getId).toList());
+        assertEquals(List.of(booking1.getId()), secondPage.stream().map(BookingListDto::getId).toList());
+    }
+
+    @Test
+    void insertIfAvailable_whenOnlyRejectedBookingOverlaps_thenInsertWaitingBooking() {
+        Optional<Booking> returned = bookingRepository.insertIfAvailable(user.getId(), item.getId(),
+                booking2.getStart().plusHours(1), booking2.getEnd());
+
+        assertTrue(returned.isPresent());
+        Booking inserted = bookingRepository.findByIdFetchItemAndFetchUser(returned.get().getId()).orElseThrow();
+        assertEquals(StatusBooking.WAITING, inserted.getStatus());
+        assertEquals(item.getId(), inserted.getItem().getId());
+        assertEquals(user.getId(), inserted.getBooker().getId());
+        assertEquals(inserted.getStart(), returned.get().getStart());
+        assertEquals(StatusBooking.WAITING, returned.get().getStatus());
+        assertEquals(item.getName(), returned.get().getItem().getName());
+        assertEquals(item.getOwner().getEmail(), returned.get().getItem().getOwner().getEmail());
+        assertEquals(item.getVersion(), returned.get().getItem().getVersion());
+        assertEquals(user.getName(), returned.get().getBooker().getName());
+    }
+
+    @Test
+    void insertIfAvailable_whenWaitingBookingOverlaps_thenNothingInserted() {
+        long before = bookingRepository.count();
+
+        Optional<Booking> id = bookingRepository.insertIfAvailable(user.getId(), item.getId(),
+                booking1.getStart().plusHours(12), booking1.getEnd().plusHours(12));
+
+        assertTrue(id.isEmpty());
+        assertEquals(before, bookingRepository.count());
+    }
+
+    @Test
+    void insertIfAvailable_whenItemUnavailable_thenNothingInserted() {
+        item.setAvailable(false);
+        itemRepository.saveAndFlush(item);
+
+        Optional<Booking> id = bookingRepository.insertIfAvailable(user.getId(), item.getId(), booking2.getEnd(),
+                booking2.getEnd().plusDays(1));
+
+        assertTrue(id.isEmpty());
+    }
+
+    @Test
+    void insertIfAvailable_whenUnknownBooker_thenNothingInserted() {
+        Optional<Booking> id = bookingRepository.insertIfAvailable(user.getId() + 100, item.getId(), booking2.getEnd(),
+                booking2.getEnd().plusDays(1));
+
+        assertTrue(id.isEmpty());
+    }
+
+    @Test
+    void updateStatus_whenTwoDecisionsOnWaitingBooking_thenOnlyFirstApplied() {
+        int approved = bookingRepository.updateStatus(booking1.getId(), StatusBooking.WAITING, StatusBooking.APPROVED);
+        int rejected = bookingRepository.updateStatus(booking1.getId(), StatusBooking.WAITING, StatusBooking.REJECTED);
+
+        assertEquals(1, approved);
+        assertEquals(0, rejected);
+        Booking actual = bookingRepository.findById(booking1.getId()).orElseThrow();
+        assertEquals(StatusBooking.APPROVED, actual.getStatus());
+        assertEquals(booking1.getVersion() + 1, actual.getVersion());
+    }
+
+    @Test
+    void updateStatuses_whenBatchMixesWaitingAndDecided_thenOnlyWaitingUpdated() {
+        int[] updated = bookingRepository.updateStatuses(List.of(booking1.getId(), booking2.getId()),
+                StatusBooking.WAITING, StatusBooking.APPROVED);
+
+        assertArrayEquals(new int[]{1, 0}, updated);
+        Map<Long, StatusBooking> statuses = bookingRepository
+                .findOwnershipByIdIn(List.of(booking1.getId(), booking2.getId())).stream()
+                .collect(Collectors.toMap(BookingOwnership::getId, BookingOwnership::getStatus));
+        assertEquals(Map.of(booking1.getId(), StatusBooking.APPROVED, booking2.getId(), StatusBooking.REJECTED),
+                statuses);
+    }
+
+    @Test
+    void findOwnershipByIdIn_whenInvoked_thenReturnItemOwnerPerBooking() {
+        List<BookingOwnership> actual = bookingRepository.findOwnershipByIdIn(List.of(booking1.getId(), 1000L));
+
+        assertEquals(1, actual.size());
+        assertEquals(booking1.getId(), actual.get(0).getId());
+        assertEquals(user.getId(), actual.get(0).getOwnerId());
+        assertEquals(StatusBooking.WAITING, actual.get(0).getStatus());
+    }
+
+    @Test
+    void decode_whenEncodedCursor_thenReturnSameCursor() {
+        BookingCursor cursor = BookingCursor.after(booking1);
+
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+        assertEquals(FIRST, BookingCursor.decode(null));
     }
-}
\ No newline at end of file
+}
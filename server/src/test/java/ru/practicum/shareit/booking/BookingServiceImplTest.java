@@ -1,31 +1,55 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCalendar;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingListDto;
 import ru.practicum.shareit.booking.dto.BookingNewDto;
+import ru.practicum.shareit.booking.dto.BookingStatusRequestDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResultDto.Result;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingDto;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.error.exeption.ConflictException;
 import ru.practicum.shareit.error.exeption.NotFoundException;
 import ru.practicum.shareit.error.exeption.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEventType;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -44,9 +68,22 @@ class BookingServiceImplTest {
     @MockBean
     private ItemRepository itemRepository;
 
+    @MockBean
+    private ItemBookingSummaryService summaryService;
+
+    @MockBean
+    private ItemAvailabilityCalendar calendar;
+
+    @MockBean
+    private Outbox outbox;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private User user;
     private Item item;
     private Booking booking;
+    private BookingListDto listedBooking;
 
     @BeforeEach
     void before() {
@@ -66,22 +103,30 @@ class BookingServiceImplTest {
                 .item(item)
                 .status(StatusBooking.WAITING)
                 .build();
+        listedBooking = new BookingListDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                item.getId(), item.getName(), user.getId(), user.getName());
     }
 
     @Test
     void createBooking_whenInvoked_thenReturnBooking() {
         BookingNewDto dto = new BookingNewDto(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1));
 
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findItemWithOwnerById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        booking.setId(5L);
+        when(bookingRepository.insertIfAvailable(1L, 1L, dto.getStart(), dto.getEnd()))
+                .thenReturn(Optional.of(booking));
 
         Booking actualBooking = bookingService.create(1L, dto);
 
         assertNotNull(actualBooking);
+        assertEquals(5L, actualBooking.getId());
         assertEquals(booking.getItem().getId(), actualBooking.getItem().getId());
         assertEquals(booking.getBooker().getId(), actualBooking.getBooker().getId());
         assertEquals(StatusBooking.WAITING, actualBooking.getStatus());
+        verify(calendar).invalidate(List.of(1L));
+        verify(outbox).append(OutboxEventType.BOOKING_CREATED, 5L,
+                new BookingEventDto(5L, 1L, 1L, StatusBooking.WAITING));
+        // the inserting statement returned the item and booker rows
+        verifyNoInteractions(userRepository, itemRepository);
     }
 
     @Test
@@ -101,16 +146,47 @@ class BookingServiceImplTest {
     @Test
     void createBooking_whenInvalidItemAvailability_thenThrowsValidationException() {
         item.setAvailable(false);
-        when(itemRepository.findItemWithOwnerById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         BookingNewDto dto = new BookingNewDto(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1));
 
         assertThrows(ValidationException.class, () -> bookingService.create(1L, dto));
     }
 
+    @Test
+    void createBooking_whenPeriodTaken_thenThrowsConflictException() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        BookingNewDto dto = new BookingNewDto(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1));
+
+        assertThrows(ConflictException.class, () -> bookingService.create(1L, dto));
+    }
+
+    @Test
+    void createBooking_whenConcurrentBookingViolatesConstraint_thenThrowsConflictException() {
+        when(bookingRepository.insertIfAvailable(anyLong(), anyLong(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("bookings_no_overlap_ex",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+        BookingNewDto dto = new BookingNewDto(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1));
+
+        assertThrows(ConflictException.class, () -> bookingService.create(1L, dto));
+        verifyNoInteractions(userRepository, itemRepository);
+    }
+
+    @Test
+    void createBooking_whenOtherIntegrityViolation_thenRethrown() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("bookings_item_id_fkey",
+                new SQLException("insert or update violates foreign key constraint", "23503"));
+        when(bookingRepository.insertIfAvailable(anyLong(), anyLong(), any(), any())).thenThrow(violation);
+        BookingNewDto dto = new BookingNewDto(1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1));
+
+        assertEquals(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.create(1L, dto)));
+    }
+
     @Test
     void createBooking_whenInvalidDates_thenThrowsValidationException() {
-        when(itemRepository.findItemWithOwnerById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         BookingNewDto dto = new BookingNewDto(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now());
 
@@ -121,12 +197,90 @@ class BookingServiceImplTest {
     void changeStatus_whenInvoked_thenReturnBooking() {
         Boolean status = true;
         when(bookingRepository.findByIdFetchItemAndFetchUser(anyLong())).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.updateStatus(1L, StatusBooking.WAITING, StatusBooking.APPROVED)).thenReturn(1);
 
         Booking actualBooking = bookingService.changeStatus(1L, 1L, status);
 
         assertNotNull(actualBooking);
         assertEquals(StatusBooking.APPROVED, actualBooking.getStatus());
+        assertEquals(1L, actualBooking.getVersion());
+        verify(summaryService).refresh(List.of(item.getId()));
+    }
+
+    @Test
+    void changeStatus_whenRejected_thenCalendarInvalidatedAndSummaryNotRefreshed() {
+        booking.setBooker(new User(2L, "booker", "booker@example.com"));
+        when(bookingRepository.findByIdFetchItemAndFetchUser(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(1L, StatusBooking.WAITING, StatusBooking.REJECTED)).thenReturn(1);
+
+        Booking actualBooking = bookingService.changeStatus(1L, 1L, false);
+
+        assertEquals(StatusBooking.REJECTED, actualBooking.getStatus());
+        verify(calendar).invalidate(List.of(item.getId()));
+        verifyNoInteractions(summaryService);
+        verify(outbox).append(OutboxEventType.BOOKING_STATUS_CHANGED, 1L,
+                new BookingEventDto(1L, item.getId(), 2L, StatusBooking.REJECTED));
+    }
+
+    @Test
+    void changeStatus_whenAlreadyDecided_thenThrowsConflictException() {
+        when(bookingRepository.findByIdFetchItemAndFetchUser(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatus(1L, StatusBooking.WAITING, StatusBooking.APPROVED)).thenReturn(0);
+        double conflicts = meterRegistry.counter("shareit.server.conflicts", "entity", "booking", "reason", "status")
+                .count();
+
+        assertThrows(ConflictException.class, () -> bookingService.changeStatus(1L, 1L, true));
+        verifyNoInteractions(outbox);
+        assertEquals(conflicts + 1, meterRegistry.counter("shareit.server.conflicts", "entity", "booking",
+                "reason", "status").count());
+    }
+
+    @Test
+    void changeStatuses_whenMixedBatch_thenResultPerRequestedId() {
+        when(bookingRepository.findOwnershipByIdIn(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                ownership(1L, 10L, 1L, StatusBooking.WAITING),
+                ownership(2L, 10L, 1L, StatusBooking.APPROVED),
+                ownership(3L, 20L, 2L, StatusBooking.WAITING)));
+        when(bookingRepository.updateStatuses(List.of(1L, 2L), StatusBooking.WAITING, StatusBooking.REJECTED))
+                .thenReturn(new int[]{1, 0});
+
+        List<BookingStatusResultDto> results = bookingService.changeStatuses(1L,
+                new BookingStatusRequestDto(List.of(1L, 2L, 3L, 4L, 1L), false));
+
+        assertEquals(List.of(
+                new BookingStatusResultDto(1L, Result.UPDATED, StatusBooking.REJECTED),
+                new BookingStatusResultDto(2L, Result.NOT_WAITING, StatusBooking.APPROVED),
+                new BookingStatusResultDto(3L, Result.NOT_OWNER, null),
+                new BookingStatusResultDto(4L, Result.NOT_FOUND, null)), results);
+        verify(calendar).invalidate(Set.of(10L));
+        verify(outbox).appendAll(eq(OutboxEventType.BOOKING_STATUS_CHANGED),
+                eq(List.of(new BookingEventDto(1L, 10L, 2L, StatusBooking.REJECTED))), any());
+    }
+
+    @Test
+    void changeStatuses_whenApproved_thenSummariesOfUpdatedItemsRefreshed() {
+        when(bookingRepository.findOwnershipByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                ownership(1L, 10L, 1L, StatusBooking.WAITING),
+                ownership(2L, 20L, 1L, StatusBooking.WAITING),
+                ownership(3L, 30L, 1L, StatusBooking.WAITING)));
+        when(bookingRepository.updateStatuses(List.of(1L, 2L, 3L), StatusBooking.WAITING, StatusBooking.APPROVED))
+                .thenReturn(new int[]{1, 0, 1});
+
+        bookingService.changeStatuses(1L, new BookingStatusRequestDto(List.of(1L, 2L, 3L), true));
+
+        verify(summaryService).refresh(Set.of(10L, 30L));
+        verifyNoInteractions(calendar);
+    }
+
+    @Test
+    void changeStatuses_whenTooManyIds_thenThrowsValidationException() {
+        List<Long> ids = LongStream.rangeClosed(1, BookingServiceImpl.MAX_STATUS_BATCH + 1)
+                .boxed()
+                .toList();
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.changeStatuses(1L, new BookingStatusRequestDto(ids, true)));
+        verify(bookingRepository, never()).findOwnershipByIdIn(any());
     }
 
     @Test
@@ -167,10 +321,10 @@ class BookingServiceImplTest {
 
     @Test
     void getAllBookingsByUserId_whenInvoked_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByIdFetchItemAndFetchUser(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerId(anyLong(), any(), any())).thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserId(1L, "ALL");
+        List<BookingListDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "ALL",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -179,11 +333,11 @@ class BookingServiceImplTest {
 
     @Test
     void getAllBookingsByUserId_whenStateCURRENT_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllBookingByCurrentDate(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllBookingByCurrentDate(anyLong(), any(LocalDateTime.class), any(), any()))
+                .thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserId(1L, "CURRENT");
+        List<BookingListDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "CURRENT",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -192,11 +346,12 @@ class BookingServiceImplTest {
 
     @Test
     void getAllBookingsByUserId_whenStatePAST_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class),
+                any(), any()))
+                .thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserId(1L, "PAST");
+        List<BookingListDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "PAST",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -205,11 +360,12 @@ class BookingServiceImplTest {
 
     @Test
     void getAllBookingsByUserId_whenStateFUTURE_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class),
+                any(), any()))
+                .thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserId(1L, "FUTURE");
+        List<BookingListDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "FUTURE",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -218,11 +374,12 @@ class BookingServiceImplTest {
 
     @Test
     void getAllBookingsByUserId_whenStateWAITING_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(StatusBooking.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(StatusBooking.class), any(),
+                any()))
+                .thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserId(1L, "WAITING");
+        List<BookingListDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "WAITING",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -231,38 +388,61 @@ class BookingServiceImplTest {
 
     @Test
     void getAllBookingsByUserId_whenStateREJECTED_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(StatusBooking.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(StatusBooking.class), any(),
+                any()))
+                .thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserId(1L, "REJECTED");
+        List<BookingListDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "REJECTED",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
         assertEquals(booking.getId(), actualBookings.get(0).getId());
     }
 
+    @Test
+    void getAllBookingsByUserId_whenBookingsFound_thenUserNotLookedUp() {
+        when(bookingRepository.findAllByBookerId(anyLong(), any(), any())).thenReturn(List.of(listedBooking));
+
+        bookingService.getAllBookingsByUserId(1L, "ALL", BookingCursor.FIRST, 0, 10);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getAllBookingsByUserId_whenKnownUserWithoutBookings_thenReturnEmptyList() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        List<BookingListDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "ALL",
+                BookingCursor.FIRST, 0, 10);
+
+        assertTrue(actualBookings.isEmpty());
+        verify(userRepository).existsById(1L);
+        verify(userRepository, never()).findById(anyLong());
+    }
+
     @Test
     void getAllBookingsByUserId_whenInvalidUserId_thenThrowsNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
-        assertThrows(NotFoundException.class, () -> bookingService.getAllBookingsByUserId(anyLong(), "ALL"));
+        assertThrows(NotFoundException.class, () -> bookingService.getAllBookingsByUserId(2L, "ALL",
+                BookingCursor.FIRST, 0, 10));
     }
 
     @Test
     void getAllBookingsByUserId_whenInvalidState_thenThrowsValidationException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         assertThrows(ValidationException.class,
-                () -> bookingService.getAllBookingsByUserId(1L, "INVALID_STATE"));
+                () -> bookingService.getAllBookingsByUserId(1L, "INVALID_STATE", BookingCursor.FIRST, 0, 10));
     }
 
     @Test
     void getBookingsForAllItemsByUserId_whenInvoked_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(anyLong())).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(anyLong(), any(),
+                any())).thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getBookingsForAllItemsByUserId(anyLong(), "ALL");
+        List<BookingListDto> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "ALL",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -271,11 +451,11 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsForAllItemsByUserId_whenStateCURRENT_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookingItemsCurrentDate(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookingItemsCurrentDate(anyLong(), any(LocalDateTime.class), any(), any()))
+                .thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "CURRENT");
+        List<BookingListDto> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "CURRENT",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -284,11 +464,12 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsForAllItemsByUserId_whenStatePAST_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class),
+                any(), any()))
+                .thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "PAST");
+        List<BookingListDto> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "PAST",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -297,11 +478,12 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsForAllItemsByUserId_whenStateFUTURE_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class),
+                any(), any()))
+                .thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "FUTURE");
+        List<BookingListDto> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "FUTURE",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -310,11 +492,12 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsForAllItemsByUserId_whenStateWAITING_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(StatusBooking.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(StatusBooking.class),
+                any(), any()))
+                .thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "WAITING");
+        List<BookingListDto> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "WAITING",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -323,11 +506,12 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsForAllItemsByUserId_whenStateREJECTED_thenReturnListBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(StatusBooking.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(StatusBooking.class),
+                any(), any()))
+                .thenReturn(List.of(listedBooking));
 
-        List<Booking> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "REJECTED");
+        List<BookingListDto> actualBookings = bookingService.getBookingsForAllItemsByUserId(1L, "REJECTED",
+                BookingCursor.FIRST, 0, 10);
 
         assertNotNull(actualBookings);
         assertEquals(1, actualBookings.size());
@@ -336,59 +520,101 @@ class BookingServiceImplTest {
 
     @Test
     void getBookingsForAllItemsByUserId_whenInvalidUserId_thenThrowsNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class,
-                () -> bookingService.getBookingsForAllItemsByUserId(2L, "ALL"));
+                () -> bookingService.getBookingsForAllItemsByUserId(2L, "ALL", BookingCursor.FIRST, 0, 10));
     }
 
     @Test
     void getBookingsForAllItemsByUserId_whenInvalidState_thenThrowsValidationException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
         assertThrows(ValidationException.class,
-                () -> bookingService.getBookingsForAllItemsByUserId(1L, "INVALID_STATE"));
+                () -> bookingService.getBookingsForAllItemsByUserId(1L, "INVALID_STATE", BookingCursor.FIRST, 0, 10));
     }
 
     @Test
-    void findLastBooking_whenInvoked_thenReturnBooking() {
-        when(bookingRepository.findFirstByItemOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(Optional.of(booking));
-
-        Booking actualBooking = bookingService.findLastBooking(1L);
+    void getAvailability_whenKnownItem_thenReturnCalendarPeriods() {
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(7);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(item.getId(), from, to, List.of(),
+                List.of(new ItemAvailabilityDto.Period(from, to)));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(calendar.getAvailability(item.getId(), from, to)).thenReturn(availability);
 
-        assertNotNull(actualBooking);
-        assertEquals(booking.getId(), actualBooking.getId());
+        assertEquals(availability, bookingService.getAvailability(item.getId(), from, to));
     }
 
     @Test
-    void findLastBooking_whenNoBookings_thenReturnNull() {
-        when(bookingRepository.findFirstByItemOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(Optional.empty());
-
-        Booking actualBooking = bookingService.findLastBooking(1L);
+    void getAvailability_whenInvalidItemId_thenThrowsNotFoundException() {
+        LocalDateTime from = LocalDateTime.now();
 
-        assertNull(actualBooking);
+        assertThrows(NotFoundException.class, () -> bookingService.getAvailability(2L, from, from.plusDays(1)));
+        verifyNoInteractions(calendar);
     }
 
     @Test
-    void findNextBooking_whenInvoked_thenReturnBooking() {
-        when(bookingRepository.findFirstByItemOwnerIdAndStartAfterOrderByStart(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(Optional.of(booking));
-
-        Booking actualBooking = bookingService.findNextBooking(1L);
+    void getAvailability_whenEmptyPeriod_thenThrowsValidationException() {
+        LocalDateTime from = LocalDateTime.now();
 
-        assertNotNull(actualBooking);
-        assertEquals(booking.getId(), actualBooking.getId());
+        assertThrows(ValidationException.class, () -> bookingService.getAvailability(item.getId(), from, from));
+        verifyNoInteractions(calendar);
     }
 
     @Test
-    void findNextBooking_whenNoBookings_thenReturnNull() {
-        when(bookingRepository.findFirstByItemOwnerIdAndStartAfterOrderByStart(anyLong(), any(LocalDateTime.class)))
-                .thenReturn(Optional.empty());
+    void findLastAndNextBookings_whenSummaryHoldsBookings_thenReturnThemPerItem() {
+        BookingListDto nextBooking = new BookingListDto(2L, booking.getStart().plusDays(5),
+                booking.getEnd().plusDays(5), StatusBooking.APPROVED, item.getId(), item.getName(), user.getId(),
+                user.getName());
+        ItemBookingSummary summary = mock(ItemBookingSummary.class);
+        when(summary.getLastBookingId()).thenReturn(listedBooking.getId());
+        when(summary.getNextBookingId()).thenReturn(nextBooking.getId());
+        when(summaryService.findByItemIds(List.of(item.getId()))).thenReturn(Map.of(item.getId(), summary));
+        when(bookingRepository.findListDtosByIdIn(List.of(listedBooking.getId(), nextBooking.getId())))
+                .thenReturn(List.of(listedBooking, nextBooking));
 
-        Booking actualBooking = bookingService.findNextBooking(1L);
+        Map<Long, LastAndNextBookingDto> actual = bookingService.findLastAndNextBookings(List.of(item.getId()));
 
-        assertNull(actualBooking);
+        assertEquals(Map.of(item.getId(), new LastAndNextBookingDto(listedBooking, nextBooking)), actual);
+    }
+
+    @Test
+    void findLastAndNextBookings_whenSummaryEmpty_thenBookingsNotQueried() {
+        ItemBookingSummary summary = mock(ItemBookingSummary.class);
+        when(summary.getLastBookingId()).thenReturn(null);
+        when(summary.getNextBookingId()).thenReturn(null);
+        when(summaryService.findByItemIds(List.of(item.getId()))).thenReturn(Map.of(item.getId(), summary));
+
+        assertTrue(bookingService.findLastAndNextBookings(List.of(item.getId())).isEmpty());
+        verify(bookingRepository, never()).findListDtosByIdIn(any());
+    }
+
+    private static BookingOwnership ownership(Long id, Long itemId, Long ownerId, StatusBooking status) {
+        return new BookingOwnership() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return 2L;
+            }
+
+            @Override
+            public StatusBooking getStatus() {
+                return status;
+            }
+        };
     }
 }
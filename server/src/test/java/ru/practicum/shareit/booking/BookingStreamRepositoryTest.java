@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.stream.BookingStreamEvent;
+import ru.practicum.shareit.booking.stream.BookingStreamRepository;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class BookingStreamRepositoryTest {
+
+    @Autowired
+    private BookingStreamRepository repository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void append_whenEventIdsOutOfOrder_thenStreamedInAppendOrderOnce() {
+        long last = repository.findLastSeq();
+
+        repository.append(List.of(event(9L, now), event(7L, now)));
+        repository.append(List.of(event(7L, now), event(8L, now)));
+
+        List<BookingStreamEvent> streamed = repository.findAllBySeqGreaterThanOrderBySeq(last, Limit.of(10));
+        assertEquals(List.of(9L, 7L, 8L), streamed.stream().map(BookingStreamEvent::getEventId).toList());
+        assertEquals(streamed.get(2).getSeq(), repository.findLastSeq());
+    }
+
+    @Test
+    void deleteCreatedBefore_whenOlderThanRetention_thenOnlyOldEventsDeleted() {
+        long last = repository.findLastSeq();
+        repository.append(List.of(event(1L, now.minusHours(2)), event(2L, now)));
+
+        assertEquals(1, repository.deleteCreatedBefore(now.minusHours(1)));
+
+        assertEquals(List.of(2L), repository.findAllBySeqGreaterThanOrderBySeq(last, Limit.of(10)).stream()
+                .map(BookingStreamEvent::getEventId)
+                .toList());
+    }
+
+    private static OutboxEvent event(long id, LocalDateTime created) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(OutboxEventType.BOOKING_CREATED.getAggregateType())
+                .aggregateId(id)
+                .type(OutboxEventType.BOOKING_CREATED)
+                .payload("{\"bookingId\":" + id + "}")
+                .created(created)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCalendar;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto.Period;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemAvailabilityCalendarTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private BookingRepository repository;
+    private ItemAvailabilityCalendar calendar;
+
+    @BeforeEach
+    void before() {
+        repository = mock(BookingRepository.class);
+        calendar = new ItemAvailabilityCalendar(repository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void getAvailability_whenBookingsAroundWindow_thenBusyClippedAndFreeBetween() {
+        when(repository.findBlockingPeriodsByItemId(1L)).thenReturn(List.of(
+                period(0, 2),
+                period(4, 6),
+                period(6, 7),
+                period(9, 12),
+                period(20, 22)));
+
+        ItemAvailabilityDto actual = calendar.getAvailability(1L, hour(1), hour(10));
+
+        assertEquals(List.of(
+                new Period(hour(1), hour(2)),
+                new Period(hour(4), hour(7)),
+                new Period(hour(9), hour(10))), actual.getBusy());
+        assertEquals(List.of(
+                new Period(hour(2), hour(4)),
+                new Period(hour(7), hour(9))), actual.getFree());
+    }
+
+    @Test
+    void getAvailability_whenWindowBetweenBookings_thenWholeWindowFree() {
+        when(repository.findBlockingPeriodsByItemId(1L)).thenReturn(List.of(period(0, 2), period(5, 6)));
+
+        ItemAvailabilityDto actual = calendar.getAvailability(1L, hour(2), hour(5));
+
+        assertEquals(List.of(), actual.getBusy());
+        assertEquals(List.of(new Period(hour(2), hour(5))), actual.getFree());
+    }
+
+    @Test
+    void getAvailability_whenBookingCoversWindow_thenWholeWindowBusy() {
+        when(repository.findBlockingPeriodsByItemId(1L)).thenReturn(List.of(period(0, 24)));
+
+        ItemAvailabilityDto actual = calendar.getAvailability(1L, hour(3), hour(4));
+
+        assertEquals(List.of(new Period(hour(3), hour(4))), actual.getBusy());
+        assertEquals(List.of(), actual.getFree());
+    }
+
+    @Test
+    void getAvailability_whenAskedAgain_thenLoadedOnceUntilInvalidated() {
+        when(repository.findBlockingPeriodsByItemId(1L)).thenReturn(List.of(period(0, 2)));
+
+        calendar.getAvailability(1L, hour(0), hour(5));
+        calendar.getAvailability(1L, hour(1), hour(3));
+        verify(repository, times(1)).findBlockingPeriodsByItemId(1L);
+
+        when(repository.findBlockingPeriodsByItemId(1L)).thenReturn(List.of(period(0, 2), period(3, 4)));
+        calendar.invalidate(List.of(1L));
+
+        assertEquals(List.of(new Period(hour(0), hour(2)), new Period(hour(3), hour(4))),
+                calendar.getAvailability(1L, hour(0), hour(5)).getBusy());
+        verify(repository, times(2)).findBlockingPeriodsByItemId(1L);
+    }
+
+    private static LocalDateTime hour(int hour) {
+        return DAY.plusHours(hour);
+    }
+
+    private static BookingPeriod period(int startHour, int endHour) {
+        return new BookingPeriod() {
+            @Override
+            public LocalDateTime getStart() {
+                return hour(startHour);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return hour(endHour);
+            }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class ItemBookingSummaryRepositoryTest {
+
+    private static final int BATCH = 100;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    private User user;
+    private Item item;
+
+    @BeforeEach
+    void before() {
+        user = userRepository.save(new User(0L, "owner", UUID.randomUUID() + "@example.com"));
+        item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("cordless")
+                .available(true)
+                .owner(user)
+                .build());
+        entityManager.persist(new ItemBookingSummary(item));
+    }
+
+    @Test
+    void refresh_whenApprovedAndOtherBookings_thenOnlyApprovedClosestToNowKept() {
+        booking(now.minusDays(6), now.minusDays(5), StatusBooking.APPROVED);
+        Booking last = booking(now.minusDays(3), now.minusDays(2), StatusBooking.APPROVED);
+        booking(now.minusDays(2), now.minusDays(1), StatusBooking.REJECTED);
+        booking(now.plusDays(1), now.plusDays(2), StatusBooking.WAITING);
+        Booking next = booking(now.plusDays(3), now.plusDays(4), StatusBooking.APPROVED);
+        booking(now.plusDays(5), now.plusDays(6), StatusBooking.APPROVED);
+
+        ItemBookingSummary summary = refresh(now);
+
+        assertEquals(last.getId(), summary.getLastBookingId());
+        assertEquals(next.getId(), summary.getNextBookingId());
+        assertEquals(next.getStart(), summary.getRefreshAt());
+    }
+
+    @Test
+    void refresh_whenApprovedBookingInProgress_thenRefreshedWhenItEnds() {
+        Booking current = booking(now.minusDays(1), now.plusDays(1), StatusBooking.APPROVED);
+        Booking next = booking(now.plusDays(2), now.plusDays(3), StatusBooking.APPROVED);
+
+        ItemBookingSummary summary = refresh(now);
+
+        assertNull(summary.getLastBookingId());
+        assertEquals(next.getId(), summary.getNextBookingId());
+        assertEquals(current.getEnd(), summary.getRefreshAt());
+    }
+
+    @Test
+    void lockExpired_whenNextBookingStarted_thenRefreshRollsNextIntoLast() {
+        Booking next = booking(now.plusHours(1), now.plusHours(2), StatusBooking.APPROVED);
+        refresh(now);
+
+        LocalDateTime later = now.plusHours(3);
+        assertTrue(summaryRepository.lockExpired(later, BATCH).contains(item.getId()));
+        ItemBookingSummary summary = refresh(later);
+
+        assertEquals(next.getId(), summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+        assertNull(summary.getRefreshAt());
+        assertFalse(summaryRepository.lockExpired(later, BATCH).contains(item.getId()));
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end, StatusBooking status) {
+        return bookingRepository.saveAndFlush(Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(user)
+                .status(status)
+                .build());
+    }
+
+    private ItemBookingSummary refresh(LocalDateTime at) {
+        summaryRepository.lockByItemIdIn(List.of(item.getId()));
+        summaryRepository.refresh(List.of(item.getId()), at);
+        entityManager.clear();
+        return summaryRepository.findById(item.getId()).orElseThrow();
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import ru.practicum.shareit.error.exeption.ConflictException;
 import ru.practicum.shareit.error.exeption.DuplicatedMailException;
 import ru.practicum.shareit.error.exeption.NotFoundException;
 import ru.practicum.shareit.error.exeption.ValidationException;
@@ -45,6 +46,15 @@ class ErrorHandlerTest {
         assertEquals("Duplicated mail", errorResponse.error());
     }
 
+    @Test
+    void handleConflict() {
+        ConflictException exception = new ConflictException("Already booked");
+
+        ErrorResponse errorResponse = errorHandler.handleConflict(exception);
+
+        assertEquals("Already booked", errorResponse.error());
+    }
+
     @Test
     void handleThrowable() {
         Throwable exception = new Throwable("Internal server error");
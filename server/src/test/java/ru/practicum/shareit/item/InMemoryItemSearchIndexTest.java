@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchIndex;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchIndexTest {
+
+    private InMemoryItemSearchIndex index;
+    private ItemRepository repository;
+    private User owner;
+
+    @BeforeEach
+    void before() {
+        owner = new User(1L, "owner", "owner@example.com");
+        repository = mock(ItemRepository.class);
+        when(repository.findAllAvailableAfterId(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                item(1L, "Дрель", "Простая дрель", true),
+                item(2L, "Отвертка", "Аккумуляторная отвертка и дрель", true),
+                item(3L, "Дрель ударная", "Мощная", true)));
+        index = new InMemoryItemSearchIndex(repository);
+        index.rebuild();
+    }
+
+    @Test
+    void searchIds_whenNameMatches_thenRankNameMatchesFirst() {
+        List<Long> actualIds = index.searchIds("дрель", 0, 10);
+
+        assertEquals(List.of(1L, 3L, 2L), actualIds);
+    }
+
+    @Test
+    void searchIds_whenPrefixAndSeveralTokens_thenReturnItemsMatchingAllTokens() {
+        assertEquals(List.of(2L), index.searchIds("аккум ДРЕЛ", 0, 10));
+        assertEquals(List.of(3L), index.searchIds("дрель удар", 0, 10));
+    }
+
+    @Test
+    void searchIds_whenPaged_thenReturnRequestedWindow() {
+        assertEquals(List.of(3L), index.searchIds("дрель", 1, 1));
+        assertTrue(index.searchIds("дрель", 3, 10).isEmpty());
+    }
+
+    @Test
+    void index_whenItemUpdated_thenReplaceOldTerms() {
+        index.index(item(1L, "Пила", "Ручная пила", true));
+
+        assertEquals(List.of(3L, 2L), index.searchIds("дрель", 0, 10));
+        assertEquals(List.of(1L), index.searchIds("пила", 0, 10));
+    }
+
+    @Test
+    void index_whenItemNotAvailable_thenRemoveFromIndex() {
+        index.index(item(3L, "Дрель ударная", "Мощная", false));
+
+        assertEquals(List.of(1L, 2L), index.searchIds("дрель", 0, 10));
+    }
+
+    @Test
+    void searchIdsNotBookedBetween_whenMatchBooked_thenSkippedAndPageFilledFromNextMatches() {
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime end = start.plusDays(2);
+        when(repository.findIdsBookedBetween(List.of(1L, 3L, 2L), start, end)).thenReturn(List.of(1L));
+
+        assertEquals(List.of(3L, 2L), index.searchIdsNotBookedBetween("дрель", start, end, 0, 2));
+        assertEquals(List.of(2L), index.searchIdsNotBookedBetween("дрель", start, end, 1, 2));
+    }
+
+    @Test
+    void searchIds_whenBlankOrUnknown_thenReturnEmpty() {
+        assertTrue(index.searchIds(" , ", 0, 10).isEmpty());
+        assertTrue(index.searchIds("молоток", 0, 10).isEmpty());
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+}
@@ -8,26 +8,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.exeption.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemListView;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
@@ -96,10 +107,74 @@ class ItemControllerTest {
         assertEquals(item.getAvailable(), actualDto.getAvailable());
     }
 
+    @SneakyThrows
+    @Test
+    void getAvailability_whenValidPeriod_thenStatusOkAndReturnPeriods() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(1L, from, to,
+                List.of(new ItemAvailabilityDto.Period(from, from.plusDays(1))),
+                List.of(new ItemAvailabilityDto.Period(from.plusDays(1), to)));
+        when(bookingService.getAvailability(1L, from, to)).thenReturn(availability);
+
+        MvcResult result = mockMvc.perform(get("/items/1/availability")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(availability, objectMapper.readValue(result.getResponse().getContentAsString(),
+                ItemAvailabilityDto.class));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemById_whenETagMatches_thenNotModifiedWithoutBody() {
+        when(itemService.getItemsById(1L)).thenReturn(item);
+        String etag = mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        MvcResult result = mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+
+        assertEquals("", result.getResponse().getContentAsString());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemById_whenItemChanged_thenOkWithNewETag() {
+        when(itemService.getItemsById(1L)).thenReturn(item);
+        String etag = mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        item.setName("renamed");
+
+        String changedETag = mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(etag, changedETag);
+    }
+
     @SneakyThrows
     @Test
     void getItemsByUserId_whenInvoked_thenReturnListItems() {
-        when(itemService.getItemsByUserId(1L)).thenReturn(items);
+        when(itemService.getItemsByUserId(1L)).thenReturn(items.stream().map(ItemControllerTest::listView).toList());
 
         MvcResult result = mockMvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 1L))
@@ -115,7 +190,7 @@ class ItemControllerTest {
     @SneakyThrows
     @Test
     void getItemsByText_whenInvoked_thenReturnListItems() {
-        when(itemService.getItemsByText("text")).thenReturn(items);
+        when(itemService.getItemsByText("text", null, null, 0, 10)).thenReturn(items);
 
         MvcResult result = mockMvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", 1L)
@@ -219,4 +294,44 @@ class ItemControllerTest {
         String actualMessage = result.getResolvedException().getMessage();
         assertEquals("User not found", actualMessage);
     }
+
+    @SneakyThrows
+    @Test
+    void importItems_whenNdjson_thenLinesPassedToServiceAndResultReturned() {
+        when(itemService.importItems(eq(1L), any())).thenAnswer(invocation -> {
+            List<String> lines = invocation.<Stream<String>>getArgument(1).toList();
+            return new ItemImportResultDto(lines.size() - 1, List.of(new ItemImportErrorDto(2, lines.get(1))));
+        });
+
+        MvcResult result = mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"drill\"}\n{\n{\"name\":\"saw\"}\n"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        ItemImportResultDto actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                ItemImportResultDto.class);
+        assertEquals(2, actual.getImported());
+        assertEquals(List.of(new ItemImportErrorDto(2, "{")), actual.getErrors());
+    }
+
+    private static ItemListView listView(Item item) {
+        return new ItemListView() {
+            @Override
+            public Long getId() {
+                return item.getId();
+            }
+
+            @Override
+            public String getName() {
+                return item.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return item.getDescription();
+            }
+        };
+    }
 }
@@ -4,7 +4,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.StatusBooking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemListView;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
@@ -12,12 +18,14 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -31,6 +39,9 @@ class ItemRepositoryTest {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
 
+    @Autowired
+    private BookingRepository bookingRepository;
+
     private User user;
     private ItemRequest request;
     private Item item1;
@@ -67,12 +78,13 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerId() {
-        Collection<Item> actualItems = itemRepository.findAllByOwnerId(user.getId());
+    void findListViewsByOwnerId() {
+        List<ItemListView> actualItems = itemRepository.findListViewsByOwnerId(user.getId());
 
         assertEquals(2, actualItems.size());
-        assertEquals(item1.getId(), actualItems.stream().findFirst().get().getId());
-        assertEquals(item2.getId(), actualItems.stream().skip(1).findFirst().get().getId());
+        assertEquals(item1.getId(), actualItems.get(0).getId());
+        assertEquals(item2.getId(), actualItems.get(1).getId());
+        assertEquals(item2.getDescription(), actualItems.get(1).getDescription());
     }
 
     @Test
@@ -106,6 +118,49 @@ class ItemRepositoryTest {
         assertThat(actualItems).contains(item2);
     }
 
+    @Test
+    void findAllByNamePattern_whenPaged_thenReturnNameMatchesFirst() {
+        Item item3 = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("cordless item3")
+                .available(true)
+                .owner(user)
+                .build());
+
+        List<Item> firstPage = itemRepository.findAllByNamePattern("item", PageRequest.of(0, 2));
+        List<Item> secondPage = itemRepository.findAllByNamePattern("item", PageRequest.of(1, 2));
+
+        assertEquals(List.of(item1, item2), firstPage);
+        assertEquals(List.of(item3), secondPage);
+    }
+
+    @Test
+    void findAllNotBookedBetweenByNamePattern_whenOverlappingApprovedBooking_thenItemLeftOut() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        bookingRepository.saveAll(List.of(
+                booking(item1, start.minusHours(1), start.plusHours(1), StatusBooking.APPROVED),
+                booking(item2, start.minusHours(1), start.plusHours(1), StatusBooking.REJECTED),
+                booking(item2, start.plusDays(1), start.plusDays(2), StatusBooking.WAITING)));
+
+        List<Item> actualItems = itemRepository.findAllNotBookedBetweenByNamePattern("item", start,
+                start.plusDays(1), PageRequest.of(0, 10));
+
+        assertEquals(List.of(item2), actualItems);
+    }
+
+    @Test
+    void findIdsBookedBetween_whenWaitingOrApprovedOverlaps_thenReturnItsItem() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        bookingRepository.saveAll(List.of(
+                booking(item1, start.minusHours(1), start.plusHours(1), StatusBooking.WAITING),
+                booking(item2, start.minusHours(2), start, StatusBooking.APPROVED)));
+
+        List<Long> actualIds = itemRepository.findIdsBookedBetween(List.of(item1.getId(), item2.getId()), start,
+                start.plusDays(1));
+
+        assertEquals(List.of(item1.getId()), actualIds);
+    }
+
     @Test
     void findAllByRequestId() {
         List<Item> actualItems = itemRepository.findAllByRequestId(request.getId());
@@ -114,4 +169,31 @@ class ItemRepositoryTest {
         assertEquals(item1.getId(), actualItems.stream().findFirst().get().getId());
         assertEquals(item2.getId(), actualItems.stream().skip(1).findFirst().get().getId());
     }
+
+    @Test
+    void saveAndFlush_whenStaleVersion_thenOptimisticLockingFailure() {
+        Item stale = Item.builder()
+                .id(item1.getId())
+                .name("stale")
+                .description(item1.getDescription())
+                .available(true)
+                .owner(user)
+                .version(item1.getVersion())
+                .build();
+        item1.setName("fresh");
+        itemRepository.saveAndFlush(item1);
+
+        assertEquals(stale.getVersion() + 1, item1.getVersion());
+        assertThrows(OptimisticLockingFailureException.class, () -> itemRepository.saveAndFlush(stale));
+    }
+
+    private Booking booking(Item item, LocalDateTime start, LocalDateTime end, StatusBooking status) {
+        return Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(user)
+                .status(status)
+                .build();
+    }
 }
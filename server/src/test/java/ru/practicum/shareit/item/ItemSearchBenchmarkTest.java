@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.DatabaseItemSearchIndex;
+import ru.practicum.shareit.item.search.InMemoryItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the SQL search path with the in-memory index on the same data set.
+ * Run with {@code mvn test -Dtest=ItemSearchBenchmarkTest -Dbenchmark=true}.
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemSearchBenchmarkTest {
+
+    private static final int ITEMS = 50_000;
+    private static final int ROUNDS = 200;
+    private static final String[] WORDS = {"дрель", "отвертка", "пила", "молоток", "лестница", "шуруповерт",
+            "перфоратор", "рубанок", "стремянка", "тиски", "ключ", "паяльник"};
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void compareSqlAndInMemorySearch() {
+        User owner = userRepository.save(new User(0L, "bench", "bench@example.com"));
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(Item.builder()
+                    .name(WORDS[i % WORDS.length] + " " + i)
+                    .description(WORDS[(i * 7) % WORDS.length] + " " + WORDS[(i * 3) % WORDS.length])
+                    .available(i % 10 != 0)
+                    .owner(owner)
+                    .build());
+        }
+        itemRepository.saveAll(items);
+
+        ItemSearchIndex sql = new DatabaseItemSearchIndex(itemRepository, false);
+        InMemoryItemSearchIndex memory = new InMemoryItemSearchIndex(itemRepository);
+        long started = System.nanoTime();
+        memory.rebuild();
+        log.info("in-memory rebuild of {} items: {} ms", ITEMS, (System.nanoTime() - started) / 1_000_000);
+
+        assertEquals(sql.search("паяльник", 0, 20).size(), memory.search("паяльник", 0, 20).size());
+
+        log.info("sql search: {} us/op", measure(sql));
+        log.info("in-memory search: {} us/op", measure(memory));
+    }
+
+    private long measure(ItemSearchIndex index) {
+        for (int i = 0; i < ROUNDS / 4; i++) {
+            index.search(WORDS[i % WORDS.length], 0, 20);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            index.search(WORDS[i % WORDS.length], i % 5 * 20, 20);
+        }
+        return (System.nanoTime() - started) / ROUNDS / 1_000;
+    }
+}
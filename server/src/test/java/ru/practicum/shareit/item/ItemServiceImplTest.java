@@ -13,8 +13,11 @@ import ru.practicum.shareit.error.exeption.NotFoundException;
 import ru.practicum.shareit.error.exeption.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemListView;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
@@ -25,9 +28,13 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest
@@ -64,7 +71,8 @@ class ItemServiceImplTest {
                 .available(true)
                 .owner(user)
                 .build();
-        itemRepository.save(item);
+        itemRepository.findById(1L).ifPresent(saved -> item.setVersion(saved.getVersion()));
+        item = itemRepository.save(item);
 
     }
 
@@ -86,8 +94,9 @@ class ItemServiceImplTest {
 
     @Test
     void getItemsByUserId_whenInvoked_thenReturnListItems() {
+        // item ids come from a pooled sequence, other tests leave items of this user behind
+        int before = itemService.getItemsByUserId(1L).size();
         Item item2 = Item.builder()
-                .id(2L)
                 .name("item2")
                 .description("description2")
                 .available(true)
@@ -95,9 +104,10 @@ class ItemServiceImplTest {
                 .build();
         itemRepository.save(item2);
 
-        Collection<Item> actualItems = itemService.getItemsByUserId(1L);
+        List<ItemListView> actualItems = itemService.getItemsByUserId(1L);
 
-        assertEquals(2, actualItems.size());
+        assertEquals(before + 1, actualItems.size());
+        assertTrue(actualItems.stream().anyMatch(actual -> actual.getId() == item2.getId()));
     }
 
     @Test
@@ -111,11 +121,26 @@ class ItemServiceImplTest {
                 .build();
         itemRepository.save(item2);
 
-        Collection<Item> actualItems = itemService.getItemsByText("item");
+        Collection<Item> actualItems = itemService.getItemsByText("item", null, null, 0, 10);
 
         assertEquals(2, actualItems.size());
     }
 
+    @Test
+    void getItemsByText_whenOnlyStartOfPeriod_thenThrowsValidationException() {
+        LocalDateTime start = LocalDateTime.now();
+
+        assertThrows(ValidationException.class, () -> itemService.getItemsByText("item", start, null, 0, 10));
+    }
+
+    @Test
+    void getItemsByText_whenEndBeforeStart_thenThrowsValidationException() {
+        LocalDateTime start = LocalDateTime.now();
+
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemsByText("item", start, start.minusDays(1), 0, 10));
+    }
+
     @Test
     void create_whenInvoked_thenReturnSavedItem() {
         ItemDto itemDto = ItemDto.builder()
@@ -141,6 +166,25 @@ class ItemServiceImplTest {
         assertEquals("Name or Description is null.", exception.getMessage());
     }
 
+    @Test
+    void importItems_whenSomeLinesInvalid_thenValidImportedAndInvalidReported() {
+        int before = itemService.getItemsByUserId(user.getId()).size();
+
+        ItemImportResultDto result = itemService.importItems(user.getId(), Stream.of(
+                "{\"name\":\"drill\",\"description\":\"cordless\",\"available\":true}",
+                "",
+                "{\"name\":",
+                "{\"description\":\"no name\",\"available\":true}",
+                "{\"name\":\"saw\",\"description\":\"hand\",\"available\":true,\"requestId\":9999}"));
+
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(3L, 4L, 5L), result.getErrors().stream().map(ItemImportErrorDto::getLine).toList());
+        assertEquals("Request by id: 9999 not found", result.getErrors().get(2).getMessage());
+        List<ItemListView> items = itemService.getItemsByUserId(user.getId());
+        assertEquals(before + 1, items.size());
+        assertTrue(items.stream().anyMatch(actual -> actual.getName().equals("drill")));
+    }
+
     @Test
     void update_whenInvoked_thenReturnSavedItem() {
         ItemDto itemDto = ItemDto.builder()
@@ -235,5 +279,34 @@ class ItemServiceImplTest {
         assertEquals(comment2.getText(), actualComments.get(0).getText());
         assertEquals(comment1.getText(), actualComments.get(1).getText());
     }
-}
 
+    @Test
+    void getComments_whenInvokedForItems_thenReturnCommentsGroupedByItemId() {
+        commentRepository.deleteAll();
+        Item item2 = itemRepository.save(Item.builder()
+                .id(2L)
+                .name("item2")
+                .description("description2")
+                .available(true)
+                .owner(user)
+                .build());
+        commentRepository.save(Comment.builder()
+                .item(item)
+                .author(user)
+                .text("comment1")
+                .created(LocalDateTime.now().minusDays(1))
+                .build());
+        commentRepository.save(Comment.builder()
+                .item(item)
+                .author(user)
+                .text("comment2")
+                .created(LocalDateTime.now())
+                .build());
+
+        Map<Long, List<CommentDto>> actualComments = itemService.getComments(List.of(item.getId(), item2.getId()));
+
+        assertEquals(2, actualComments.get(item.getId()).size());
+        assertEquals("comment2", actualComments.get(item.getId()).get(0).getText());
+        assertNull(actualComments.get(item2.getId()));
+    }
+}
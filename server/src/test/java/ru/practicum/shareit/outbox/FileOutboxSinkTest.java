@@ -0,0 +1,63 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void publish_whenCalledTwice_thenOneLinePerEventAppended() throws Exception {
+        Path file = dir.resolve("outbox.ndjson");
+        FileOutboxSink sink = new FileOutboxSink(file, objectMapper);
+
+        sink.publish(List.of(event(1L, "{\"itemId\":7}"), event(2L, "{\"itemId\":8}")));
+        sink.publish(List.of(event(3L, "{\"itemId\":9}")));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        JsonNode last = objectMapper.readTree(lines.get(2));
+        assertEquals(3L, last.get("id").asLong());
+        assertEquals("ITEM_UPDATED", last.get("type").asText());
+        assertEquals("item", last.get("aggregateType").asText());
+        assertEquals(9, last.get("payload").get("itemId").asInt());
+    }
+
+    @Test
+    void sink_whenNotEnabled_thenNotCreated() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withBean(ObjectMapper.class, () -> objectMapper)
+                .withUserConfiguration(FileOutboxSink.class);
+
+        runner.run(context -> assertFalse(context.containsBean("fileOutboxSink")));
+        runner.withPropertyValues("shareit.outbox.sink=file", "shareit.outbox.file=" + dir.resolve("outbox.ndjson"))
+                .run(context -> assertTrue(context.containsBean("fileOutboxSink")));
+    }
+
+    private static OutboxEvent event(long id, String payload) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(OutboxEventType.ITEM_UPDATED.getAggregateType())
+                .aggregateId(id)
+                .type(OutboxEventType.ITEM_UPDATED)
+                .payload(payload)
+                .created(LocalDateTime.of(2030, 1, 1, 0, 0))
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.StatusBooking;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "shareit.outbox.sink=none")
+class OutboxRelayTest {
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // added next to the booking event stream rather than replacing it
+    @MockBean(name = "recordingSink")
+    private OutboxSink sink;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void before() {
+        transaction = new TransactionTemplate(transactionManager);
+        // other contexts share the database and may have left events behind
+        relay.relay();
+        clearInvocations(sink);
+    }
+
+    @Test
+    void relay_whenEventsCommitted_thenPublishedInOrderAndDeleted() throws Exception {
+        transaction.executeWithoutResult(status -> {
+            outbox.append(OutboxEventType.BOOKING_CREATED, 1L, event(1L, StatusBooking.WAITING));
+            outbox.appendAll(OutboxEventType.BOOKING_STATUS_CHANGED, List.of(
+                    event(1L, StatusBooking.APPROVED),
+                    event(2L, StatusBooking.REJECTED)), BookingEventDto::getBookingId);
+        });
+
+        assertEquals(3, relay.relay());
+
+        ArgumentCaptor<List<OutboxEvent>> published = ArgumentCaptor.captor();
+        verify(sink).publish(published.capture());
+        List<OutboxEvent> events = published.getValue();
+        assertEquals(List.of(OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_STATUS_CHANGED,
+                OutboxEventType.BOOKING_STATUS_CHANGED), events.stream().map(OutboxEvent::getType).toList());
+        assertEquals(List.of(1L, 1L, 2L), events.stream().map(OutboxEvent::getAggregateId).toList());
+        assertEquals(event(2L, StatusBooking.REJECTED),
+                objectMapper.readValue(events.get(2).getPayload(), BookingEventDto.class));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void relay_whenSinkFails_thenEventsKeptUntilNextRun() {
+        transaction.executeWithoutResult(status ->
+                outbox.append(OutboxEventType.BOOKING_CREATED, 1L, event(1L, StatusBooking.WAITING)));
+        doThrow(new IllegalStateException("broker down")).when(sink).publish(any());
+        double failures = meterRegistry.counter("shareit.server.outbox.failures").count();
+
+        assertEquals(0, relay.relay());
+        assertEquals(1, repository.count());
+        assertEquals(failures + 1, meterRegistry.counter("shareit.server.outbox.failures").count());
+
+        reset(sink);
+        assertEquals(1, relay.relay());
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void append_whenNoTransaction_thenRejected() {
+        assertThrows(RuntimeException.class,
+                () -> outbox.append(OutboxEventType.BOOKING_CREATED, 1L, event(1L, StatusBooking.WAITING)));
+    }
+
+    private static BookingEventDto event(long bookingId, StatusBooking status) {
+        return new BookingEventDto(bookingId, 10L, 2L, status);
+    }
+}